@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +38,22 @@ public class ApiResponse {
         return response;
     }
 
+    /**
+     * Create a successful response with one page of a list and the cursor of the next page,
+     * omitted on the last page
+     */
+    public static ApiResponse page(String dataKey, Object items, String nextCursor) {
+        ApiResponse response = new ApiResponse();
+        response.success = true;
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put(dataKey, items);
+        if (nextCursor != null) {
+            data.put("nextCursor", nextCursor);
+        }
+        response.data = data;
+        return response;
+    }
+
     /**
      * Create a successful response with message
      */
@@ -0,0 +1,24 @@
+package org.household.common;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Converts BSON dates read into raw Documents back to the java.time types of the entities
+ * The entity codecs store LocalDate and LocalDateTime as UTC instants
+ */
+public final class BsonDates {
+
+    private BsonDates() {
+    }
+
+    public static LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC) : null;
+    }
+
+    public static LocalDate toLocalDate(Date date) {
+        return date != null ? LocalDate.ofInstant(date.toInstant(), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package org.household.common;
+
+/**
+ * Selects the store behind the repositories with the household.store build property
+ * "mongo" (the default) uses MongoDB through Panache, "memory" keeps all data in process,
+ * for load testing the services without a database (see the loadtest profile)
+ */
+public final class DataStore {
+
+    public static final String PROPERTY = "household.store";
+
+    public static final String MEMORY = "memory";
+
+    private DataStore() {
+    }
+}
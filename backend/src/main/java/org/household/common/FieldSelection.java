@@ -0,0 +1,49 @@
+package org.household.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trims serialized items to the requested top-level fields
+ * Used with projected reads, where fields that were not loaded would otherwise be
+ * serialized with their default values
+ */
+public final class FieldSelection {
+
+    private static final String ID_FIELD = "id";
+
+    private FieldSelection() {
+    }
+
+    /**
+     * The items unchanged when no fields are requested, otherwise each item as a map holding
+     * its id and the requested fields
+     */
+    public static List<?> select(ObjectMapper objectMapper, List<?> items, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return items;
+        }
+
+        List<Map<String, Object>> selected = new ArrayList<>(items.size());
+        for (Object item : items) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> serialized = objectMapper.convertValue(item, Map.class);
+            Map<String, Object> kept = new LinkedHashMap<>();
+            if (serialized.containsKey(ID_FIELD)) {
+                kept.put(ID_FIELD, serialized.get(ID_FIELD));
+            }
+            for (String field : fields) {
+                if (serialized.containsKey(field)) {
+                    kept.put(field, serialized.get(field));
+                }
+            }
+            selected.add(kept);
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,284 @@
+package org.household.common;
+
+import com.mongodb.MongoClientSettings;
+import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoEntity;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.codecs.pojo.PojoCodecProvider;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe in-process stand-in for a MongoDB collection, backing the in-memory repositories
+ * Entities are kept as BSON documents encoded with the driver's POJO codec, like MongoDB stores
+ * them, so every read returns a fresh copy that callers may modify; every call is atomic
+ * Each document also keeps a decoded view that filters are tested against, so a scan only
+ * decodes the documents it returns; filters must treat the entities they get as read-only
+ */
+public class InMemoryCollection<T extends ReactivePanacheMongoEntity> {
+
+    private static final CodecRegistry CODEC_REGISTRY = CodecRegistries.fromRegistries(
+            MongoClientSettings.getDefaultCodecRegistry(),
+            CodecRegistries.fromProviders(PojoCodecProvider.builder().automatic(true).build()));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Documents by ID in insertion order, the natural order of a collection scan
+     */
+    private final Map<ObjectId, Stored<T>> documents = new LinkedHashMap<>();
+
+    private final Codec<T> codec;
+
+    public InMemoryCollection(Class<T> type) {
+        this.codec = CODEC_REGISTRY.get(type);
+    }
+
+    /**
+     * Entity with the given ID, or null
+     */
+    public T findById(ObjectId id) {
+        lock.readLock().lock();
+        try {
+            Stored<T> stored = documents.get(id);
+            return stored != null ? decode(stored.document()) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entities matching the filter, in the given order or in insertion order when it is null
+     */
+    public List<T> find(Predicate<T> filter, Comparator<T> order) {
+        List<T> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Stored<T> stored : documents.values()) {
+                if (filter.test(stored.view())) {
+                    matches.add(decode(stored.document()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (order != null) {
+            matches.sort(order);
+        }
+        return matches;
+    }
+
+    /**
+     * Entities with the given IDs, in the order of the IDs; looked up by ID without a scan
+     */
+    public List<T> findByIds(Collection<ObjectId> ids) {
+        List<T> matches = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (ObjectId id : new LinkedHashSet<>(ids)) {
+                Stored<T> stored = documents.get(id);
+                if (stored != null) {
+                    matches.add(decode(stored.document()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    /**
+     * Store a new entity, assigning an ID when it has none
+     */
+    public T insert(T entity) {
+        if (entity.id == null) {
+            entity.id = new ObjectId();
+        }
+        lock.writeLock().lock();
+        try {
+            store(entity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return entity;
+    }
+
+    /**
+     * Replace the stored entity with the same ID; returns null when there is none
+     */
+    public T replace(T entity) {
+        lock.writeLock().lock();
+        try {
+            if (!documents.containsKey(entity.id)) {
+                return null;
+            }
+            store(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the entity with the given ID; returns whether there was one
+     */
+    public boolean delete(ObjectId id) {
+        lock.writeLock().lock();
+        try {
+            return documents.remove(id) != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change to the first entity matching the filter, like findOneAndUpdate
+     * When nothing matches and upsert is not null, the change is applied to the entity it
+     * supplies, which is then inserted
+     *
+     * @return the entity after the change, or null when nothing was changed
+     */
+    public T update(Predicate<T> filter, Consumer<T> change, Supplier<T> upsert) {
+        lock.writeLock().lock();
+        try {
+            for (Stored<T> stored : documents.values()) {
+                if (filter.test(stored.view())) {
+                    T entity = decode(stored.document());
+                    change.accept(entity);
+                    store(entity);
+                    return entity;
+                }
+            }
+
+            if (upsert == null) {
+                return null;
+            }
+            T entity = upsert.get();
+            if (entity.id == null) {
+                entity.id = new ObjectId();
+            }
+            change.accept(entity);
+            store(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change to the entity with the given ID if it also matches the condition, like
+     * findOneAndUpdate on _id; only that document is decoded
+     *
+     * @param condition further filter on the entity, or null for none
+     * @return the entity after the change, or null when nothing was changed
+     */
+    public T updateById(ObjectId id, Predicate<T> condition, Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            Stored<T> stored = documents.get(id);
+            if (stored == null || condition != null && !condition.test(stored.view())) {
+                return null;
+            }
+            T entity = decode(stored.document());
+            change.accept(entity);
+            store(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * One page ordered by createdAt then ID, newest first, with the same cursor semantics as
+     * {@link KeysetPagination}
+     * Requested fields are not projected here; responses are trimmed to them by {@link FieldSelection}
+     */
+    public Page<T> findPage(PageRequest request, Function<T, LocalDateTime> createdAtOf) {
+        PageCursor cursor = request.cursor();
+        Predicate<T> afterCursor = cursor == null
+                ? entity -> true
+                : entity -> {
+                    // Entities without createdAt sort last, ordered by ID alone
+                    LocalDateTime createdAt = createdAtOf.apply(entity);
+                    if (cursor.createdAt() == null) {
+                        return createdAt == null && entity.id.compareTo(cursor.id()) < 0;
+                    }
+                    if (createdAt == null) {
+                        return true;
+                    }
+                    int compared = createdAt.compareTo(cursor.createdAt());
+                    return compared < 0 || compared == 0 && entity.id.compareTo(cursor.id()) < 0;
+                };
+        Comparator<T> newestFirst = Comparator
+                .comparing(createdAtOf, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(entity -> entity.id)
+                .reversed();
+
+        // Sort the views and decode only the page, plus one to tell whether there is a next one
+        List<T> items = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Stored<T>> matches = new ArrayList<>();
+            for (Stored<T> stored : documents.values()) {
+                if (afterCursor.test(stored.view())) {
+                    matches.add(stored);
+                }
+            }
+            matches.sort(Comparator.comparing(Stored::view, newestFirst));
+            for (Stored<T> stored : matches.subList(0, Math.min(matches.size(), request.limit() + 1))) {
+                items.add(decode(stored.document()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (items.size() <= request.limit()) {
+            return new Page<>(items, null);
+        }
+        List<T> pageItems = new ArrayList<>(items.subList(0, request.limit()));
+        T last = pageItems.get(pageItems.size() - 1);
+        return new Page<>(pageItems, new PageCursor(createdAtOf.apply(last), last.id).encode());
+    }
+
+    /**
+     * Encode the entity and keep a decoded view of it, detached from the caller's instance
+     */
+    private void store(T entity) {
+        BsonDocument document = encode(entity);
+        documents.put(entity.id, new Stored<>(document, decode(document)));
+    }
+
+    private BsonDocument encode(T entity) {
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), entity, EncoderContext.builder().build());
+        return document;
+    }
+
+    private T decode(BsonDocument document) {
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    private record Stored<T>(BsonDocument document, T view) {
+    }
+}
@@ -0,0 +1,78 @@
+package org.household.common;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
+import io.smallrye.mutiny.Uni;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads pages of a collection ordered by createdAt then _id, newest first
+ * A page starts right after its cursor using the { createdAt: -1, _id: -1 } order, so no
+ * documents are skipped and every page costs the same no matter how deep it is
+ * Documents without createdAt sort last, where the order is by _id alone
+ */
+public final class KeysetPagination {
+
+    public static final String CREATED_AT_FIELD = "createdAt";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Read one page; when fields are requested only those (plus _id and createdAt, needed for
+     * the cursor) are loaded from the database
+     *
+     * @param cursorOf cursor pointing at an item
+     */
+    public static <T> Uni<Page<T>> find(ReactiveMongoCollection<T> collection, PageRequest request,
+                                        Function<T, PageCursor> cursorOf) {
+        Bson filter = Filters.empty();
+        if (request.cursor() != null) {
+            filter = afterCursor(request.cursor());
+        }
+
+        // One extra document tells whether there is a next page
+        FindOptions options = new FindOptions()
+                .sort(Sorts.descending(CREATED_AT_FIELD, "_id"))
+                .limit(request.limit() + 1);
+        if (!request.fields().isEmpty()) {
+            // _id is always returned
+            List<String> included = new ArrayList<>(request.fields());
+            included.remove("id");
+            included.add(CREATED_AT_FIELD);
+            options.projection(Projections.include(included));
+        }
+
+        return collection.find(filter, options)
+                .collect().asList()
+                .onItem().transform(items -> {
+                    if (items.size() <= request.limit()) {
+                        return new Page<>(items, null);
+                    }
+                    List<T> pageItems = items.subList(0, request.limit());
+                    return new Page<>(new ArrayList<>(pageItems),
+                            cursorOf.apply(pageItems.get(pageItems.size() - 1)).encode());
+                });
+    }
+
+    /**
+     * Documents after the cursor: older ones, then those without createdAt (null and missing
+     * both equal null), and within the same createdAt the lower IDs
+     */
+    private static Bson afterCursor(PageCursor cursor) {
+        if (cursor.createdAt() == null) {
+            return Filters.and(Filters.eq(CREATED_AT_FIELD, null), Filters.lt("_id", cursor.id()));
+        }
+        return Filters.or(
+                Filters.lt(CREATED_AT_FIELD, cursor.createdAt()),
+                Filters.eq(CREATED_AT_FIELD, null),
+                Filters.and(Filters.eq(CREATED_AT_FIELD, cursor.createdAt()), Filters.lt("_id", cursor.id())));
+    }
+}
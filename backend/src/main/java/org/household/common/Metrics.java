@@ -0,0 +1,41 @@
+package org.household.common;
+
+/**
+ * Names of the application's meters
+ * They are exported at /q/metrics in Prometheus format, with dots replaced by underscores
+ */
+public final class Metrics {
+
+    /**
+     * Timer for every REST method, tagged with class and method
+     */
+    public static final String API_REQUESTS = "household.api.requests";
+
+    /**
+     * Timer for MongoDB commands, tagged with collection, command and status
+     */
+    public static final String MONGO_COMMANDS = "household.mongo.commands";
+
+    /**
+     * Documents returned or written per MongoDB command, tagged with collection and command
+     */
+    public static final String MONGO_DOCUMENTS = "household.mongo.documents";
+
+    /**
+     * Recipe ingredients found or missing in the pantry when a meal is completed, tagged with result
+     */
+    public static final String PANTRY_MATCHES = "household.pantry.matches";
+
+    /**
+     * Items per shopping list generated from a meal plan, tagged with the generation mode
+     */
+    public static final String SHOPPING_LIST_GENERATED_ITEMS = "household.shoppinglist.generated.items";
+
+    /**
+     * Recipes loaded per meal plan population
+     */
+    public static final String MEAL_PLAN_RECIPES_FETCHED = "household.mealplan.recipes.fetched";
+
+    private Metrics() {
+    }
+}
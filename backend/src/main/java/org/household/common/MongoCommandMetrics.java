@@ -0,0 +1,91 @@
+package org.household.common;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency and document count of every MongoDB command per collection
+ * The driver picks the listener up as a bean; the collection is only present in the started event,
+ * so it is kept by request ID until the command finishes
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+public class MongoCommandMetrics implements CommandListener {
+
+    static final String NO_COLLECTION = "none";
+
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    @Inject
+    MeterRegistry registry;
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        collections.put(event.getRequestId(), collectionOf(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = finished(event.getRequestId());
+        registry.timer(Metrics.MONGO_COMMANDS,
+                        "collection", collection, "command", event.getCommandName(), "status", "success")
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        registry.summary(Metrics.MONGO_DOCUMENTS, "collection", collection, "command", event.getCommandName())
+                .record(documentCount(event.getResponse()));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        registry.timer(Metrics.MONGO_COMMANDS,
+                        "collection", finished(event.getRequestId()), "command", event.getCommandName(),
+                        "status", "failure")
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private String finished(int requestId) {
+        String collection = collections.remove(requestId);
+        return collection != null ? collection : NO_COLLECTION;
+    }
+
+    /**
+     * Collection targeted by a command: the value of the command name field (find, aggregate,
+     * update...), or the collection field of getMore; admin commands have none
+     */
+    static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : NO_COLLECTION;
+    }
+
+    /**
+     * Documents a command returned or wrote: the batch size of a cursor, n of inserts, updates and
+     * deletes, or one when findAndModify returned a document
+     */
+    static long documentCount(BsonDocument response) {
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            BsonArray batch = cursor.getArray("firstBatch", cursor.getArray("nextBatch", null));
+            return batch != null ? batch.size() : 0;
+        }
+
+        BsonValue count = response.get("n");
+        if (count != null && count.isNumber()) {
+            return count.asNumber().longValue();
+        }
+
+        BsonValue value = response.get("value");
+        return value != null && value.isDocument() ? 1 : 0;
+    }
+}
@@ -0,0 +1,86 @@
+package org.household.common;
+
+import com.mongodb.MongoException;
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.mongodb.panache.common.reactive.Panache;
+import io.quarkus.mongodb.reactive.ReactiveMongoClient;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.zero.flow.adapters.AdaptersToFlow;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs work in a MongoDB transaction
+ * Panache-managed for entity operations, or with an explicit client session where raw collection
+ * operations (bulkWrite, replaceOne) have to commit together, which Panache.withTransaction does not cover
+ * Like the driver's own withTransaction, a transaction failing with TransientTransactionError is run again
+ * and a commit failing with UnknownTransactionCommitResult is retried, a bounded number of times
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+public class MongoTransactions implements Transactions {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    @Inject
+    ReactiveMongoClient mongoClient;
+
+    @Override
+    public <T> Uni<T> withTransaction(Supplier<Uni<T>> work) {
+        return Uni.createFrom().deferred(() -> Panache.withTransaction(work))
+                .onFailure(MongoTransactions::isTransient).retry().atMost(MAX_ATTEMPTS - 1);
+    }
+
+    /**
+     * Start a session and transaction, run the work and commit, or abort if the work fails
+     */
+    @Override
+    public <T> Uni<T> withTransaction(Function<ClientSession, Uni<T>> work) {
+        return mongoClient.startSession()
+                .onItem().transformToUni(session -> Uni.createFrom().deferred(() -> attempt(session, work))
+                        .onFailure(MongoTransactions::isTransient).retry().atMost(MAX_ATTEMPTS - 1)
+                        .eventually(session::close));
+    }
+
+    /**
+     * One run of the work in a new transaction
+     * Only failures of the work abort; a failed commit already ended the transaction
+     */
+    private <T> Uni<T> attempt(ClientSession session, Function<ClientSession, Uni<T>> work) {
+        session.startTransaction();
+        return work.apply(session)
+                .onFailure().call(() -> abort(session))
+                .onItem().call(() -> commit(session));
+    }
+
+    private Uni<Void> commit(ClientSession session) {
+        return Uni.createFrom().deferred(() -> Uni.createFrom()
+                        .publisher(AdaptersToFlow.publisher(session.commitTransaction())))
+                .onFailure(MongoTransactions::isUnknownCommitResult).retry().atMost(MAX_ATTEMPTS - 1)
+                .replaceWithVoid();
+    }
+
+    /**
+     * Abort, ignoring failures so the work's own failure is the one reported
+     */
+    private Uni<Void> abort(ClientSession session) {
+        return Uni.createFrom().deferred(() -> Uni.createFrom()
+                        .publisher(AdaptersToFlow.publisher(session.abortTransaction())))
+                .replaceWithVoid()
+                .onFailure().recoverWithNull();
+    }
+
+    private static boolean isTransient(Throwable failure) {
+        return failure instanceof MongoException mongoException
+                && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+    }
+
+    private static boolean isUnknownCommitResult(Throwable failure) {
+        return failure instanceof MongoException mongoException
+                && mongoException.hasErrorLabel(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL);
+    }
+}
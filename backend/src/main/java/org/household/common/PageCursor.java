@@ -0,0 +1,41 @@
+package org.household.common;
+
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by createdAt then _id, both descending
+ * Encoded for clients as an opaque URL-safe string; items without createdAt sort after all
+ * others and their cursors carry a null createdAt
+ */
+public record PageCursor(LocalDateTime createdAt, ObjectId id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : "") + SEPARATOR + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor received from a client
+     */
+    public static PageCursor decode(String cursor) throws ValidationException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0 || !ObjectId.isValid(raw.substring(separator + 1))) {
+                throw new ValidationException("Invalid cursor");
+            }
+            String createdAt = raw.substring(0, separator);
+            return new PageCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt),
+                    new ObjectId(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
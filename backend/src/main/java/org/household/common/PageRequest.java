@@ -0,0 +1,64 @@
+package org.household.common;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keyset pagination parameters of a list endpoint: where to start, how many items and which fields
+ *
+ * @param cursor position after the last item of the previous page, or null for the first page
+ * @param fields top-level fields to return, empty for all fields
+ */
+public record PageRequest(PageCursor cursor, int limit, Set<String> fields) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Whether any pagination parameter was sent; list endpoints return the whole collection otherwise
+     */
+    public static boolean isRequested(String cursor, Integer limit, String fields) {
+        return cursor != null || limit != null || fields != null;
+    }
+
+    /**
+     * Parse the query parameters of a list endpoint
+     * Requested fields are projected in the database query, so only names in the endpoint's
+     * allowlist are accepted
+     *
+     * @param fields        comma-separated field names
+     * @param allowedFields top-level fields the endpoint's items may be trimmed to
+     */
+    public static PageRequest of(String cursor, Integer limit, String fields, Set<String> allowedFields)
+            throws ValidationException {
+        int pageLimit = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageLimit <= 0 || pageLimit > MAX_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        Set<String> fieldSet = new LinkedHashSet<>();
+        if (fields != null) {
+            Arrays.stream(fields.split(","))
+                    .map(String::trim)
+                    .filter(field -> !field.isEmpty())
+                    .forEach(fieldSet::add);
+        }
+        for (String field : fieldSet) {
+            if (!allowedFields.contains(field)) {
+                throw new ValidationException("fields", "Unknown field '" + field + "', allowed fields are "
+                        + String.join(", ", new TreeSet<>(allowedFields)), "validation_error");
+            }
+        }
+
+        return new PageRequest(cursor != null ? PageCursor.decode(cursor) : null, pageLimit, Set.copyOf(fieldSet));
+    }
+
+    /**
+     * Whether the given field is returned
+     */
+    public boolean includes(String field) {
+        return fields.isEmpty() || fields.contains(field);
+    }
+}
@@ -0,0 +1,39 @@
+package org.household.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.mutiny.Uni;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Builds the response of a paginated list endpoint from its cursor, limit and fields parameters
+ */
+public final class PagedResponse {
+
+    private PagedResponse() {
+    }
+
+    /**
+     * Parse the parameters, load the page and wrap it with the next cursor
+     * Invalid parameters, including fields outside allowedFields, give a 400 response
+     */
+    public static Uni<RestResponse<ApiResponse>> of(String cursor, Integer limit, String fields,
+                                                    Set<String> allowedFields, String dataKey,
+                                                    ObjectMapper objectMapper,
+                                                    Function<PageRequest, Uni<? extends Page<?>>> loader) {
+        PageRequest request;
+        try {
+            request = PageRequest.of(cursor, limit, fields, allowedFields);
+        } catch (ValidationException e) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error(e.getMessage(), 400, e.getValidationIssues())));
+        }
+
+        return loader.apply(request)
+                .onItem().transform(page -> RestResponse.ok(ApiResponse.page(dataKey,
+                        FieldSelection.select(objectMapper, page.items(), request.fields()),
+                        page.nextCursor())));
+    }
+}
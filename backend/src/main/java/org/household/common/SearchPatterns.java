@@ -0,0 +1,62 @@
+package org.household.common;
+
+import java.util.Locale;
+
+/**
+ * Builds MongoDB regex patterns and text search terms from user search input
+ * Input is normalized like the stored name keys and every regex metacharacter is escaped,
+ * so a search term always matches literally and cannot turn into a backtracking pattern
+ */
+public final class SearchPatterns {
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private SearchPatterns() {
+    }
+
+    /**
+     * Normalize search input the same way stored name keys are (trimmed and lowercased)
+     */
+    public static String normalize(String input) {
+        return input.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Anchored pattern matching keys starting with the input; a case-sensitive anchored
+     * literal prefix is answered from an ascending index on the key
+     */
+    public static String prefix(String input) {
+        return "^" + escape(normalize(input));
+    }
+
+    /**
+     * Unanchored pattern matching keys containing the input; scans the key index, so it is
+     * only used as a fallback
+     */
+    public static String contains(String input) {
+        return escape(normalize(input));
+    }
+
+    /**
+     * Words of the input for a $text search, separated by single spaces
+     * Quotes and minus signs are dropped, so input cannot turn into a phrase or a negated term
+     */
+    public static String textTerms(String input) {
+        return String.join(" ", input.replace('"', ' ').replace('-', ' ').trim().split("\\s+")).trim();
+    }
+
+    /**
+     * Escape regex metacharacters with a backslash
+     */
+    public static String escape(String input) {
+        StringBuilder escaped = new StringBuilder(input.length() + 8);
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (METACHARACTERS.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package org.household.common;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.smallrye.mutiny.Uni;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs repository work in a transaction of the configured store
+ */
+public interface Transactions {
+
+    /**
+     * Run work in a transaction joined by the repository calls it makes
+     */
+    <T> Uni<T> withTransaction(Supplier<Uni<T>> work);
+
+    /**
+     * Run work in a transaction with an explicit client session, for repository methods taking
+     * a session; the session is null when the store has none
+     */
+    <T> Uni<T> withTransaction(Function<ClientSession, Uni<T>> work);
+}
@@ -0,0 +1,139 @@
+package org.household.diagnostics;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import lombok.extern.slf4j.Slf4j;
+import org.household.common.ApiResponse;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Admin endpoints controlling the flight recording
+ * Starting, dumping and stopping touch the disk, so these run on virtual threads
+ * The endpoints are unauthenticated, so they are only built with household.diagnostics.enabled=true
+ */
+@Path("/api/admin/recording")
+@IfBuildProperty(name = DiagnosticsResource.ENABLED_PROPERTY, stringValue = "true")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@Slf4j
+public class DiagnosticsResource {
+
+    static final String ENABLED_PROPERTY = "household.diagnostics.enabled";
+
+    @Inject
+    FlightRecorderService flightRecorder;
+
+    /**
+     * GET /api/admin/recording
+     * The running recording
+     */
+    @GET
+    public RestResponse<ApiResponse> getRecording() {
+        RecordingInfo recording = flightRecorder.current();
+        if (recording == null) {
+            return notRunning();
+        }
+        return RestResponse.ok(ApiResponse.success("recording", recording));
+    }
+
+    /**
+     * POST /api/admin/recording
+     * Start a recording; settings is "default" (low overhead) or "profile" (more detail)
+     */
+    @POST
+    public RestResponse<ApiResponse> startRecording(@QueryParam("settings") @DefaultValue("default") String settings) {
+        if (!FlightRecorderService.SETTINGS.contains(settings)) {
+            return RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Settings must be 'default' or 'profile'", 400));
+        }
+
+        try {
+            RecordingInfo recording = flightRecorder.start(settings);
+            if (recording == null) {
+                return RestResponse.status(RestResponse.Status.CONFLICT,
+                        ApiResponse.error("A recording is already running", 409));
+            }
+            return RestResponse.status(RestResponse.Status.CREATED, ApiResponse.success("recording", recording));
+        } catch (IOException | ParseException e) {
+            log.error("Failed to start flight recording", e);
+            return RestResponse.status(RestResponse.Status.INTERNAL_SERVER_ERROR,
+                    ApiResponse.error("Failed to start recording", 500));
+        }
+    }
+
+    /**
+     * GET /api/admin/recording/dump
+     * Download what the running recording holds so far as a .jfr file
+     * The dump is streamed from its temporary file, which is deleted once it has been sent
+     */
+    @GET
+    @Path("/dump")
+    @Produces({MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_JSON})
+    public RestResponse<?> dumpRecording() {
+        Path dump;
+        try {
+            dump = flightRecorder.dump();
+        } catch (IOException e) {
+            log.error("Failed to dump flight recording", e);
+            return RestResponse.ResponseBuilder.create(RestResponse.Status.INTERNAL_SERVER_ERROR,
+                            ApiResponse.error("Failed to dump recording", 500))
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .build();
+        }
+        if (dump == null) {
+            return RestResponse.ResponseBuilder.create(RestResponse.Status.NOT_FOUND,
+                            ApiResponse.error("No recording is running", 404))
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .build();
+        }
+
+        StreamingOutput body = output -> {
+            try {
+                Files.copy(dump, output);
+            } finally {
+                deleteQuietly(dump);
+            }
+        };
+        return RestResponse.ResponseBuilder.ok(body, MediaType.APPLICATION_OCTET_STREAM_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + FlightRecorderService.RECORDING_NAME + ".jfr\"")
+                .build();
+    }
+
+    /**
+     * DELETE /api/admin/recording
+     * Stop and discard the running recording
+     */
+    @DELETE
+    public RestResponse<ApiResponse> stopRecording() {
+        if (!flightRecorder.stop()) {
+            return notRunning();
+        }
+        return RestResponse.ok(ApiResponse.success("message", "Recording stopped"));
+    }
+
+    private RestResponse<ApiResponse> notRunning() {
+        return RestResponse.status(RestResponse.Status.NOT_FOUND, ApiResponse.error("No recording is running", 404));
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete recording dump {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.household.diagnostics;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Owns the application's flight recording
+ * With household.jfr.continuous the recording starts with the application, using the low overhead
+ * "default" settings unless configured otherwise; both built-in settings sample allocations
+ * Events holding the environment and system properties are left out, so dumps carry no secrets
+ * passed through them
+ */
+@ApplicationScoped
+@Slf4j
+public class FlightRecorderService {
+
+    static final String RECORDING_NAME = "household";
+    static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    /**
+     * Events disabled on top of the built-in settings
+     */
+    static final List<String> EXCLUDED_EVENTS = List.of("jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty");
+
+    @ConfigProperty(name = "household.jfr.continuous", defaultValue = "false")
+    boolean continuous;
+
+    @ConfigProperty(name = "household.jfr.settings", defaultValue = "default")
+    String defaultSettings;
+
+    @ConfigProperty(name = "household.jfr.max-age", defaultValue = "PT30M")
+    Duration maxAge;
+
+    private Recording recording;
+    private String recordingSettings;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!continuous) {
+            return;
+        }
+        try {
+            start(defaultSettings);
+            log.info("Started continuous flight recording with {} settings", defaultSettings);
+        } catch (IOException | ParseException e) {
+            log.error("Failed to start continuous flight recording", e);
+        }
+    }
+
+    /**
+     * Start the recording with the given built-in settings, keeping at most max-age of data
+     *
+     * @return the new recording, or null if one is already running
+     */
+    public synchronized RecordingInfo start(String settings) throws IOException, ParseException {
+        if (isRunning()) {
+            return null;
+        }
+
+        Map<String, String> eventSettings = new HashMap<>(Configuration.getConfiguration(settings).getSettings());
+        for (String event : EXCLUDED_EVENTS) {
+            eventSettings.put(event + "#enabled", "false");
+        }
+        Recording started = new Recording(eventSettings);
+        started.setName(RECORDING_NAME);
+        started.setMaxAge(maxAge);
+        started.setToDisk(true);
+        started.start();
+
+        recording = started;
+        recordingSettings = settings;
+        return RecordingInfo.of(recording, recordingSettings);
+    }
+
+    /**
+     * The running recording, or null if there is none
+     */
+    public synchronized RecordingInfo current() {
+        return isRunning() ? RecordingInfo.of(recording, recordingSettings) : null;
+    }
+
+    /**
+     * Copy what the running recording holds so far into a new temporary file, which the caller deletes
+     *
+     * @return the dump, or null if no recording is running
+     */
+    public synchronized Path dump() throws IOException {
+        if (!isRunning()) {
+            return null;
+        }
+        Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Stop and discard the running recording
+     *
+     * @return whether a recording was running
+     */
+    public synchronized boolean stop() {
+        if (!isRunning()) {
+            return false;
+        }
+        recording.close();
+        recording = null;
+        recordingSettings = null;
+        return true;
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
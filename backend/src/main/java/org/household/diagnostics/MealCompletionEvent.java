@@ -0,0 +1,38 @@
+package org.household.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A meal marked as completed or uncompleted, with the pantry changes it made
+ */
+@Name("org.household.MealCompletion")
+@Label("Meal Completion")
+@Category({"Household", "Meal Plan"})
+public class MealCompletionEvent extends OperationEvent {
+
+    @Label("Meal Plan ID")
+    public String mealPlanId;
+
+    @Label("Meal Index")
+    public int mealIndex;
+
+    @Label("Completed")
+    @Description("True when the meal was completed, false when it was uncompleted")
+    public boolean completed;
+
+    @Label("Ingredient Count")
+    public int ingredientCount;
+
+    @Label("Pantry Items Changed")
+    @Description("Ingredients taken from the pantry on completion, or put back on uncompletion")
+    public int pantryItemsChanged;
+
+    public MealCompletionEvent(String mealPlanId, int mealIndex, boolean completed) {
+        this.mealPlanId = mealPlanId;
+        this.mealIndex = mealIndex;
+        this.completed = completed;
+    }
+}
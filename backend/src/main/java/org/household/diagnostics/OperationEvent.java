@@ -0,0 +1,44 @@
+package org.household.diagnostics;
+
+import io.smallrye.mutiny.Uni;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+import java.util.function.Consumer;
+
+/**
+ * JFR event timing one service operation
+ * Fields are only filled in and the event only committed while a recording has it enabled
+ */
+public abstract class OperationEvent extends Event {
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /**
+     * Time an asynchronous operation: the event begins when the operation is subscribed and is
+     * committed when it emits or fails
+     */
+    public <T> Uni<T> timing(Uni<T> operation) {
+        return timing(operation, ignored -> {
+        });
+    }
+
+    /**
+     * Time an asynchronous operation, describing the event from its result when it succeeds
+     */
+    public <T> Uni<T> timing(Uni<T> operation, Consumer<T> describe) {
+        return operation
+                .onSubscription().invoke(this::begin)
+                .onItemOrFailure().invoke((item, failure) -> {
+                    end();
+                    if (shouldCommit()) {
+                        succeeded = failure == null;
+                        if (succeeded) {
+                            describe.accept(item);
+                        }
+                        commit();
+                    }
+                });
+    }
+}
@@ -0,0 +1,35 @@
+package org.household.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A single ingredient quantity added to or taken from the pantry
+ */
+@Name("org.household.PantryQuantityChange")
+@Label("Pantry Quantity Change")
+@Category({"Household", "Pantry"})
+public class PantryQuantityChangeEvent extends OperationEvent {
+
+    @Label("Ingredient")
+    public String ingredient;
+
+    @Label("Unit")
+    public String unit;
+
+    @Label("Quantity")
+    @Description("Quantity added, negative when it was taken")
+    public double quantity;
+
+    @Label("Pantry Item ID")
+    @Description("Item that was changed, empty when no item had enough quantity to reduce")
+    public String pantryItemId;
+
+    public PantryQuantityChangeEvent(String ingredient, String unit, double quantity) {
+        this.ingredient = ingredient;
+        this.unit = unit;
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,26 @@
+package org.household.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The in-pantry flags of a shopping list resolved against the pantry
+ */
+@Name("org.household.PantryStatus")
+@Label("Pantry Status")
+@Category({"Household", "Shopping List"})
+public class PantryStatusEvent extends OperationEvent {
+
+    @Label("Shopping List ID")
+    public String shoppingListId;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("Items In Pantry")
+    public int inPantryCount;
+
+    @Label("Pantry Size")
+    public int pantrySize;
+}
@@ -0,0 +1,30 @@
+package org.household.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Shopping list items added to the pantry
+ */
+@Name("org.household.PantryTransfer")
+@Label("Pantry Transfer")
+@Category({"Household", "Shopping List"})
+public class PantryTransferEvent extends OperationEvent {
+
+    @Label("Shopping List ID")
+    public String shoppingListId;
+
+    @Label("Selected By ID")
+    @Description("True when the items were picked by ID, false when all purchased items were transferred")
+    public boolean selectedById;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    public PantryTransferEvent(String shoppingListId, boolean selectedById) {
+        this.shoppingListId = shoppingListId;
+        this.selectedById = selectedById;
+    }
+}
@@ -0,0 +1,17 @@
+package org.household.diagnostics;
+
+import jdk.jfr.Recording;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of the diagnostics flight recording
+ */
+public record RecordingInfo(String name, String settings, String state, Instant startTime, Duration maxAge) {
+
+    static RecordingInfo of(Recording recording, String settings) {
+        return new RecordingInfo(recording.getName(), settings, recording.getState().name(),
+                recording.getStartTime(), recording.getMaxAge());
+    }
+}
@@ -0,0 +1,34 @@
+package org.household.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A shopping list generated from a meal plan
+ */
+@Name("org.household.ShoppingListGeneration")
+@Label("Shopping List Generation")
+@Category({"Household", "Shopping List"})
+public class ShoppingListGenerationEvent extends OperationEvent {
+
+    @Label("Meal Plan ID")
+    public String mealPlanId;
+
+    @Label("Shopping List ID")
+    public String shoppingListId;
+
+    @Label("Generation Mode")
+    public String mode;
+
+    @Label("Meal Count")
+    public int mealCount;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    public ShoppingListGenerationEvent(String mealPlanId, String mode) {
+        this.mealPlanId = mealPlanId;
+        this.mode = mode;
+    }
+}
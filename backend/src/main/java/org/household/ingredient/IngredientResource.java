@@ -0,0 +1,39 @@
+package org.household.ingredient;
+
+import io.micrometer.core.annotation.Timed;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import org.household.common.ApiResponse;
+import org.household.common.Metrics;
+import org.jboss.resteasy.reactive.RestResponse;
+
+@Path("/api/ingredients")
+@Produces(MediaType.APPLICATION_JSON)
+@Timed(value = Metrics.API_REQUESTS, histogram = true)
+public class IngredientResource {
+
+    @Inject
+    IngredientSuggestionIndex suggestionIndex;
+
+    /**
+     * GET /api/ingredients/suggest Ingredient names starting with the prefix, most used first
+     */
+    @GET
+    @Path("/suggest")
+    public Uni<RestResponse<ApiResponse>> suggest(@QueryParam("prefix") String prefix,
+                                                  @QueryParam("limit") @DefaultValue("10") int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Prefix parameter is required", 400)));
+        }
+        if (limit <= 0) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Limit parameter must be positive", 400)));
+        }
+
+        return Uni.createFrom().item(RestResponse.ok(
+                ApiResponse.success("suggestions", suggestionIndex.suggest(prefix, limit))));
+    }
+}
@@ -0,0 +1,80 @@
+package org.household.ingredient;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.household.common.DataStore;
+import org.household.pantry.PantryItem;
+import org.household.recipe.Recipe;
+import org.household.shoppinglist.ShoppingList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the ingredient suggestion index at startup from the names used in recipes,
+ * pantry items and shopping lists
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+@Slf4j
+public class IngredientStartup {
+
+    @Inject
+    IngredientSuggestionIndex suggestionIndex;
+
+    void onStart(@Observes StartupEvent event) {
+        Uni.combine().all()
+                .unis(countNames(Recipe.mongoCollection(), "ingredients"),
+                        countNames(PantryItem.mongoCollection(), null),
+                        countNames(ShoppingList.mongoCollection(), "items"))
+                .asTuple()
+                .onItem().transform(counts -> {
+                    Map<String, Long> frequencies = new HashMap<>();
+                    addCounts(frequencies, counts.getItem1());
+                    addCounts(frequencies, counts.getItem2());
+                    addCounts(frequencies, counts.getItem3());
+                    return frequencies;
+                })
+                .onItem().invoke(frequencies -> {
+                    suggestionIndex.rebuild(frequencies);
+                    log.info("Indexed {} ingredient names for suggestions", suggestionIndex.size());
+                })
+                .onFailure().invoke(e -> log.error("Failed to build ingredient suggestions", e))
+                .onFailure().recoverWithNull()
+                .await().indefinitely();
+    }
+
+    /**
+     * Count the uses of each name, in the given array field or on the documents themselves
+     */
+    private static Uni<List<Document>> countNames(ReactiveMongoCollection<?> collection, String arrayField) {
+        List<Bson> pipeline = new ArrayList<>();
+        String namePath = "$name";
+        if (arrayField != null) {
+            pipeline.add(Aggregates.unwind("$" + arrayField));
+            namePath = "$" + arrayField + ".name";
+        }
+        pipeline.add(Aggregates.group(namePath, Accumulators.sum("count", 1)));
+
+        return collection.aggregate(pipeline, Document.class).collect().asList();
+    }
+
+    private static void addCounts(Map<String, Long> frequencies, List<Document> groups) {
+        for (Document group : groups) {
+            Number count = group.get("count", Number.class);
+            frequencies.merge(group.getString("_id"), count.longValue(), Long::sum);
+        }
+    }
+}
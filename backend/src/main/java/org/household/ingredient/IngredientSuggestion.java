@@ -0,0 +1,7 @@
+package org.household.ingredient;
+
+/**
+ * An ingredient name suggested for a typed prefix, with how often it has been used
+ */
+public record IngredientSuggestion(String name, long frequency) {
+}
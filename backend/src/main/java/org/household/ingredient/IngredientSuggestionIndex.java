@@ -0,0 +1,275 @@
+package org.household.ingredient;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.household.common.SearchPatterns;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over ingredient names used in recipes, the pantry and shopping lists
+ * Every node keeps its most frequent names, so a suggestion is a walk down the prefix
+ * without visiting the subtree
+ * Writes record the names they add and forget the names they drop, so a frequency is the number
+ * of current uses; a name whose count reaches zero leaves the index. When a name in a full top
+ * list loses uses, that node's list is refilled from its children's lists and the name ending
+ * at the node, since a name ranking under a prefix also ranks under the longer prefix below it
+ */
+@ApplicationScoped
+public class IngredientSuggestionIndex {
+
+    /**
+     * Names kept per trie node, the most suggestions a query can return
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Term> BY_FREQUENCY = Comparator.comparingLong(Term::frequency).reversed()
+            .thenComparing(Term::key);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+
+    /**
+     * Terms by normalized key
+     */
+    private final Map<String, Term> terms = new HashMap<>();
+
+    /**
+     * Replace the whole index with the given name frequencies
+     */
+    public void rebuild(Map<String, Long> frequencies) {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            terms.clear();
+            for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
+                add(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Record one use of each of the given ingredient names
+     */
+    public void record(Collection<String> names) {
+        update(List.of(), names);
+    }
+
+    /**
+     * Drop one use of each of the given ingredient names
+     */
+    public void forget(Collection<String> names) {
+        update(names, List.of());
+    }
+
+    /**
+     * Record a write that replaced the previous names with the given ones: only the difference
+     * is counted, names used as often before and after keep their frequency
+     */
+    public void update(Collection<String> previousNames, Collection<String> names) {
+        Map<String, Long> deltas = new HashMap<>();
+        Map<String, String> displayNames = new HashMap<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                String key = SearchPatterns.normalize(name);
+                deltas.merge(key, 1L, Long::sum);
+                displayNames.putIfAbsent(key, name);
+            }
+        }
+        for (String name : previousNames) {
+            if (name != null && !name.isBlank()) {
+                deltas.merge(SearchPatterns.normalize(name), -1L, Long::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+                if (entry.getValue() > 0) {
+                    add(displayNames.get(entry.getKey()), entry.getValue());
+                } else {
+                    subtract(entry.getKey(), -entry.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Most used names starting with the prefix (case insensitive), at most limit and
+     * never more than {@link #MAX_SUGGESTIONS}
+     */
+    public List<IngredientSuggestion> suggest(String prefix, int limit) {
+        String key = SearchPatterns.normalize(prefix);
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            int count = Math.min(Math.min(limit, MAX_SUGGESTIONS), node.top.size());
+            List<IngredientSuggestion> suggestions = new ArrayList<>(Math.max(count, 0));
+            for (int i = 0; i < count; i++) {
+                Term term = node.top.get(i);
+                suggestions.add(new IngredientSuggestion(term.name, term.frequency));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct names in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(String name, long uses) {
+        if (name == null || name.isBlank() || uses <= 0) {
+            return;
+        }
+
+        String key = SearchPatterns.normalize(name);
+        Term term = terms.computeIfAbsent(key, ignored -> new Term(key, name.trim()));
+        term.frequency += uses;
+
+        // The frequency only went up, so the term can only move up in each node's top list
+        Node node = root;
+        promote(node, term);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), ignored -> new Node());
+            promote(node, term);
+        }
+    }
+
+    private void subtract(String key, long uses) {
+        Term term = terms.get(key);
+        if (term == null) {
+            return;
+        }
+        term.frequency -= uses;
+        if (term.frequency <= 0) {
+            terms.remove(key);
+        }
+
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+            if (node != null) {
+                path.add(node);
+            }
+        }
+
+        // The frequency only went down, so only the nodes listing the term need re-ranking;
+        // they are re-ranked bottom up, so a refill reads children that are already up to date
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            demote(current, key.substring(0, depth), term);
+            if (depth > 0 && current.top.isEmpty()) {
+                // No names left under this prefix
+                path.get(depth - 1).children.remove(key.charAt(depth - 1));
+            }
+        }
+    }
+
+    private void demote(Node node, String prefix, Term term) {
+        List<Term> top = node.top;
+        if (!top.contains(term)) {
+            return;
+        }
+        if (top.size() < MAX_SUGGESTIONS) {
+            // A list that is not full holds every name under the prefix
+            if (term.frequency <= 0) {
+                top.remove(term);
+            } else {
+                top.sort(BY_FREQUENCY);
+            }
+            return;
+        }
+
+        // A name that was left out may now rank above the term; any name under the prefix is
+        // either the one ending here or listed by the child it continues into
+        top.clear();
+        Term exact = terms.get(prefix);
+        if (exact != null) {
+            promote(node, exact);
+        }
+        for (Node child : node.children.values()) {
+            for (Term candidate : child.top) {
+                promote(node, candidate);
+            }
+        }
+    }
+
+    private static void promote(Node node, Term term) {
+        List<Term> top = node.top;
+        if (!top.contains(term)) {
+            if (top.size() == MAX_SUGGESTIONS && BY_FREQUENCY.compare(term, top.get(top.size() - 1)) >= 0) {
+                return;
+            }
+            top.add(term);
+        }
+        top.sort(BY_FREQUENCY);
+        if (top.size() > MAX_SUGGESTIONS) {
+            top.remove(top.size() - 1);
+        }
+    }
+
+    private static final class Node {
+
+        final Map<Character, Node> children = new HashMap<>();
+
+        final List<Term> top = new ArrayList<>(MAX_SUGGESTIONS + 1);
+    }
+
+    /**
+     * A distinct name, shown as first seen and counted under its normalized key
+     */
+    private static final class Term {
+
+        final String key;
+        final String name;
+        long frequency;
+
+        Term(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        long frequency() {
+            return frequency;
+        }
+
+        String key() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.household.mealplan;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.InMemoryCollection;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Meal plans kept in memory, for load testing without MongoDB; sessions are ignored
+ */
+@ApplicationScoped
+@IfBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY)
+public class InMemoryMealPlanRepository implements MealPlanRepository {
+
+    private final InMemoryCollection<MealPlan> mealPlans = new InMemoryCollection<>(MealPlan.class);
+
+    @Override
+    public Uni<List<MealPlan>> findAllOrderedByStartDate() {
+        return Uni.createFrom().item(() -> mealPlans.find(mealPlan -> true, newestStartFirst()));
+    }
+
+    @Override
+    public Uni<List<MealPlanSummary>> findSummaries() {
+        return findAllOrderedByStartDate().onItem().transform(plans -> {
+            List<MealPlanSummary> summaries = new ArrayList<>(plans.size());
+            for (MealPlan mealPlan : plans) {
+                List<MealPlan.MealPlanItem> meals = mealPlan.meals != null ? mealPlan.meals : List.of();
+                int completedMeals = 0;
+                for (MealPlan.MealPlanItem meal : meals) {
+                    if (Boolean.TRUE.equals(meal.isCompleted)) {
+                        completedMeals++;
+                    }
+                }
+                summaries.add(new MealPlanSummary(mealPlan.id, mealPlan.name, mealPlan.startDate,
+                        mealPlan.endDate, mealPlan.createdAt, mealPlan.updatedAt, meals.size(), completedMeals));
+            }
+            return summaries;
+        });
+    }
+
+    @Override
+    public Uni<Page<MealPlan>> findPage(PageRequest request) {
+        return Uni.createFrom().item(() -> mealPlans.findPage(request, mealPlan -> mealPlan.createdAt));
+    }
+
+    @Override
+    public Uni<MealPlan> findById(ObjectId id) {
+        return Uni.createFrom().item(() -> mealPlans.findById(id));
+    }
+
+    @Override
+    public Uni<MealPlan> findById(ClientSession session, ObjectId id) {
+        return findById(id);
+    }
+
+    @Override
+    public Uni<List<MealPlan>> findByDateRange(LocalDate start, LocalDate end) {
+        return Uni.createFrom().item(() -> mealPlans.find(mealPlan -> mealPlan.startDate != null
+                && mealPlan.endDate != null
+                && !mealPlan.startDate.isAfter(end) && !mealPlan.endDate.isBefore(start), null));
+    }
+
+    @Override
+    public Uni<List<MealPlan>> findIncludingDate(LocalDate date) {
+        return findByDateRange(date, date);
+    }
+
+    @Override
+    public Uni<MealPlan> persist(MealPlan mealPlan) {
+        return Uni.createFrom().item(() -> mealPlans.insert(mealPlan));
+    }
+
+    @Override
+    public Uni<MealPlan> update(MealPlan mealPlan) {
+        return Uni.createFrom().item(() -> mealPlans.replace(mealPlan));
+    }
+
+    @Override
+    public Uni<MealPlan> replace(ClientSession session, MealPlan mealPlan) {
+        return update(mealPlan);
+    }
+
+    @Override
+    public Uni<Void> delete(MealPlan mealPlan) {
+        return Uni.createFrom().item(() -> mealPlans.delete(mealPlan.id)).replaceWithVoid();
+    }
+
+    private static Comparator<MealPlan> newestStartFirst() {
+        return Comparator.comparing((MealPlan mealPlan) -> mealPlan.startDate,
+                Comparator.nullsFirst(Comparator.naturalOrder())).reversed();
+    }
+}
@@ -1,5 +1,8 @@
 package org.household.mealplan;
 
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoEntity;
 import io.quarkus.mongodb.panache.common.MongoEntity;
 import io.quarkus.panache.common.Sort;
@@ -8,12 +11,14 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.extern.slf4j.Slf4j;
 
+import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * MealPlan entity representing a meal planning schedule
@@ -23,6 +28,12 @@ import java.util.List;
 @Slf4j
 public class MealPlan extends ReactivePanacheMongoEntity {
 
+    /**
+     * Top-level fields a page request may select
+     */
+    public static final Set<String> PAGE_FIELDS = Set.of("id", "name", "startDate", "endDate", "meals",
+            "createdAt", "updatedAt");
+
     @NotBlank(message = "{test}")
     @Size(min = 2, message = "{test}")
     public String name;
@@ -85,6 +96,29 @@ public class MealPlan extends ReactivePanacheMongoEntity {
         return find("startDate <= ?1 and endDate >= ?1", date).list();
     }
 
+    /**
+     * Summaries of all meal plans ordered by start date (newest first)
+     * Meals are not loaded: the database counts them with $size and $filter
+     */
+    public static Uni<List<MealPlanSummary>> findSummaries() {
+        Document meals = new Document("$ifNull", List.of("$meals", List.of()));
+        Document completedMeals = new Document("$filter", new Document()
+                .append("input", meals)
+                .append("as", "meal")
+                .append("cond", new Document("$eq", List.of("$$meal.isCompleted", true))));
+
+        return MealPlan.<MealPlan>mongoCollection()
+                .aggregate(List.of(
+                        Aggregates.sort(Sorts.descending("startDate")),
+                        Aggregates.project(Projections.fields(
+                                Projections.include("name", "startDate", "endDate", "createdAt", "updatedAt"),
+                                Projections.computed("totalMeals", new Document("$size", meals)),
+                                Projections.computed("completedMeals", new Document("$size", completedMeals))))),
+                        Document.class)
+                .map(MealPlanSummary::fromDocument)
+                .collect().asList();
+    }
+
     /**
      * Inner class representing a meal plan item
      */
@@ -0,0 +1,62 @@
+package org.household.mealplan;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.smallrye.mutiny.Uni;
+import org.bson.types.ObjectId;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data access for meal plans, backed by MongoDB or kept in memory depending on {@link org.household.common.DataStore}
+ */
+public interface MealPlanRepository {
+
+    /**
+     * All meal plans ordered by start date (newest first)
+     */
+    Uni<List<MealPlan>> findAllOrderedByStartDate();
+
+    /**
+     * Summaries of all meal plans ordered by start date (newest first)
+     */
+    Uni<List<MealPlanSummary>> findSummaries();
+
+    /**
+     * One page of meal plans ordered by creation date (newest first)
+     */
+    Uni<Page<MealPlan>> findPage(PageRequest request);
+
+    /**
+     * Meal plan with the given ID, or null
+     */
+    Uni<MealPlan> findById(ObjectId id);
+
+    /**
+     * Meal plan with the given ID read inside the given session's transaction, or null
+     */
+    Uni<MealPlan> findById(ClientSession session, ObjectId id);
+
+    /**
+     * Meal plans overlapping the given date range
+     */
+    Uni<List<MealPlan>> findByDateRange(LocalDate start, LocalDate end);
+
+    /**
+     * Meal plans whose date range includes the given date
+     */
+    Uni<List<MealPlan>> findIncludingDate(LocalDate date);
+
+    Uni<MealPlan> persist(MealPlan mealPlan);
+
+    Uni<MealPlan> update(MealPlan mealPlan);
+
+    /**
+     * Replace a meal plan inside the given session's transaction
+     */
+    Uni<MealPlan> replace(ClientSession session, MealPlan mealPlan);
+
+    Uni<Void> delete(MealPlan mealPlan);
+}
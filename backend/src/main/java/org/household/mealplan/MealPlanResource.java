@@ -1,5 +1,7 @@
 package org.household.mealplan;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
@@ -8,24 +10,89 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.bson.types.ObjectId;
 import org.household.common.ApiResponse;
+import org.household.common.Metrics;
+import org.household.common.PageRequest;
+import org.household.common.PagedResponse;
 import org.household.common.ValidationException;
 import org.jboss.resteasy.reactive.RestResponse;
 
 import io.smallrye.mutiny.Uni;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Path("/api/mealPlans")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Timed(value = Metrics.API_REQUESTS, histogram = true)
 @Slf4j
 public class MealPlanResource {
 
+    static final String VIEW_SUMMARY = "summary";
+
+    static final String FORMAT_EMBEDDED = "embedded";
+
+    static final String FORMAT_NORMALIZED = "normalized";
+
     @Inject
     MealPlanService mealPlanService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * GET /api/mealPlans All meal plans, or one page when cursor, limit or fields is given
+     * Pages are ordered by creation date (newest first); view=summary returns meal counts instead of meals
+     * for every plan and can't be combined with date
+     * format=normalized returns meals with recipe IDs and each plan's recipes once in a recipes map;
+     * it isn't available for pages or summaries
+     */
     @GET
-    public Uni<RestResponse<ApiResponse>> getAllMealPlans(@QueryParam("date") LocalDate date) {
+    public Uni<RestResponse<ApiResponse>> getAllMealPlans(@QueryParam("date") LocalDate date,
+                                                          @QueryParam("cursor") String cursor,
+                                                          @QueryParam("limit") Integer limit,
+                                                          @QueryParam("fields") String fields,
+                                                          @QueryParam("view") String view,
+                                                          @QueryParam("format") String format) {
+        if (!isValidFormat(format)) {
+            return Uni.createFrom().item(invalidFormat());
+        }
+
+        if (view != null) {
+            if (!VIEW_SUMMARY.equals(view)) {
+                return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("View must be 'summary'", 400)));
+            }
+            if (date != null) {
+                return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("view=summary can't be combined with date", 400)));
+            }
+            if (FORMAT_NORMALIZED.equals(format)) {
+                return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("format=normalized can't be combined with view=summary", 400)));
+            }
+            return mealPlanService.getMealPlanSummaries()
+                    .onItem()
+                    .transform(summaries -> RestResponse.ok(ApiResponse.success("mealPlans", summaries)));
+        }
+
+        if (date == null && PageRequest.isRequested(cursor, limit, fields)) {
+            if (FORMAT_NORMALIZED.equals(format)) {
+                return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("format=normalized can't be combined with cursor, limit or fields", 400)));
+            }
+            return PagedResponse.of(cursor, limit, fields, MealPlan.PAGE_FIELDS, "mealPlans", objectMapper,
+                    mealPlanService::getMealPlansPage);
+        }
+
+        if (FORMAT_NORMALIZED.equals(format)) {
+            Uni<List<NormalizedMealPlan>> plans = date != null
+                    ? mealPlanService.findMealPlansIncludeDateNormalized(date)
+                    : mealPlanService.getAllMealPlansNormalized();
+            return plans.onItem()
+                    .transform(mealPlans -> RestResponse.ok(ApiResponse.success("mealPlans", mealPlans)));
+        }
+
         if (date != null) {
             return mealPlanService.findMealPlansIncludeDate(date)
                     .onItem()
@@ -62,17 +129,27 @@ public class MealPlanResource {
     /**
      * GET /api/mealPlans/{id}
      * Fetch a specific meal plan by ID
+     * format=normalized returns meals with recipe IDs and the plan's recipes once in a recipes map
      */
     @GET
     @Path("/{id}")
-    public Uni<RestResponse<ApiResponse>> getMealPlanById(@PathParam("id") String id) {
+    public Uni<RestResponse<ApiResponse>> getMealPlanById(@PathParam("id") String id,
+                                                          @QueryParam("format") String format) {
 
         if (!ObjectId.isValid(id)) {
             return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
                     ApiResponse.error("Invalid meal plan ID format", 400)));
         }
 
-        return mealPlanService.getMealPlanById(new ObjectId(id))
+        if (!isValidFormat(format)) {
+            return Uni.createFrom().item(invalidFormat());
+        }
+
+        Uni<?> mealPlan = FORMAT_NORMALIZED.equals(format)
+                ? mealPlanService.getMealPlanByIdNormalized(new ObjectId(id))
+                : mealPlanService.getMealPlanById(new ObjectId(id));
+
+        return mealPlan
                 .onItem().transform(mealPlanWithRecipes -> {
                     if (mealPlanWithRecipes == null) {
                         return RestResponse.status(RestResponse.Status.NOT_FOUND,
@@ -235,4 +312,13 @@ public class MealPlanResource {
                     ApiResponse.error(e.getMessage(), 400, e.getValidationIssues())));
         }
     }
+
+    private static boolean isValidFormat(String format) {
+        return format == null || FORMAT_EMBEDDED.equals(format) || FORMAT_NORMALIZED.equals(format);
+    }
+
+    private static RestResponse<ApiResponse> invalidFormat() {
+        return RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                ApiResponse.error("Format must be 'embedded' or 'normalized'", 400));
+    }
 }
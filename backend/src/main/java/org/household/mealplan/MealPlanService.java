@@ -1,18 +1,30 @@
 package org.household.mealplan;
 
-import io.quarkus.mongodb.panache.common.reactive.Panache;
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 import org.bson.types.ObjectId;
+import org.household.common.Metrics;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.common.Transactions;
 import org.household.common.ValidationException;
+import org.household.diagnostics.MealCompletionEvent;
+import org.household.pantry.PantryQuantityChange;
 import org.household.pantry.PantryService;
 import org.household.recipe.Recipe;
+import org.household.recipe.RecipeRepository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service class for MealPlan business logic
@@ -21,15 +33,27 @@ import java.util.List;
 @ApplicationScoped
 public class MealPlanService {
 
+    @Inject
+    MealPlanRepository mealPlanRepository;
+
+    @Inject
+    RecipeRepository recipeRepository;
+
     @Inject
     PantryService pantryService;
 
+    @Inject
+    Transactions transactions;
+
+    @Inject
+    MeterRegistry registry;
+
     /**
      * Get all meal plans ordered by start date (newest first)
      * Returns meal plans with populated recipe details
      */
     public Uni<List<MealPlanWithRecipes>> getAllMealPlans() {
-        return MealPlan.findAllOrderedByStartDate()
+        return mealPlanRepository.findAllOrderedByStartDate()
                 .onItem().transformToUni(this::populateMealPlansWithRecipes);
     }
 
@@ -38,7 +62,32 @@ public class MealPlanService {
      * Returns basic meal plans without populated recipes
      */
     public Uni<List<MealPlan>> getAllMealPlansBasic() {
-        return MealPlan.findAllOrderedByStartDate();
+        return mealPlanRepository.findAllOrderedByStartDate();
+    }
+
+    /**
+     * Get summaries of all meal plans (counts instead of meals), ordered by start date (newest first)
+     */
+    public Uni<List<MealPlanSummary>> getMealPlanSummaries() {
+        return mealPlanRepository.findSummaries();
+    }
+
+    /**
+     * Get one page of meal plans, most recently created first
+     * Unlike the full list, which is ordered by start date, pages use the creation order shared by
+     * every paginated endpoint: createdAt never changes, so a cursor stays valid while plans are
+     * edited, whereas a plan moved to another start date would be skipped or repeated
+     * Recipes are only loaded when the meals are part of the page
+     */
+    public Uni<Page<MealPlanWithRecipes>> getMealPlansPage(PageRequest request) {
+        Uni<Page<MealPlan>> page = mealPlanRepository.findPage(request);
+        if (!request.includes("meals")) {
+            return page.onItem().transform(plans -> new Page<>(
+                    plans.items().stream().map(MealPlanWithRecipes::new).toList(), plans.nextCursor()));
+        }
+
+        return page.onItem().transformToUni(plans -> populateMealPlansWithRecipes(plans.items())
+                .onItem().transform(populated -> new Page<>(populated, plans.nextCursor())));
     }
 
     /**
@@ -48,7 +97,7 @@ public class MealPlanService {
         validateMealPlan(mealPlan);
 
         mealPlan.prePersist();
-        return Panache.withTransaction(() -> mealPlan.persist()
+        return transactions.withTransaction(() -> mealPlanRepository.persist(mealPlan)
                 .onItem().transform(ignored -> {
                     if (mealPlan.id == null) {
                         throw new RuntimeException("Failed to persist meal plan");
@@ -61,16 +110,41 @@ public class MealPlanService {
      * Get a meal plan by ID with populated recipe details
      */
     public Uni<MealPlanWithRecipes> getMealPlanById(ObjectId id) {
-        return MealPlan.<MealPlan>findById(id)
+        return mealPlanRepository.findById(id)
                 .onItem().ifNotNull().transformToUni(this::populateSingleMealPlanWithRecipes)
                 .onItem().ifNull().continueWith(() -> null);
     }
 
+    /**
+     * Get all meal plans ordered by start date (newest first) in the normalized format
+     */
+    public Uni<List<NormalizedMealPlan>> getAllMealPlansNormalized() {
+        return mealPlanRepository.findAllOrderedByStartDate()
+                .onItem().transformToUni(this::normalizeMealPlans);
+    }
+
+    /**
+     * Get meal plans including the given date in the normalized format
+     */
+    public Uni<List<NormalizedMealPlan>> findMealPlansIncludeDateNormalized(LocalDate date) {
+        return mealPlanRepository.findIncludingDate(date)
+                .onItem().transformToUni(this::normalizeMealPlans);
+    }
+
+    /**
+     * Get a meal plan by ID in the normalized format, emits null if it does not exist
+     */
+    public Uni<NormalizedMealPlan> getMealPlanByIdNormalized(ObjectId id) {
+        return mealPlanRepository.findById(id)
+                .onItem().ifNotNull().transformToUni(mealPlan -> normalizeMealPlans(List.of(mealPlan))
+                        .onItem().transform(plans -> plans.get(0)));
+    }
+
     /**
      * Get a meal plan by ID without populated recipes
      */
     public Uni<MealPlan> getMealPlanByIdBasic(ObjectId id) {
-        return MealPlan.findById(id);
+        return mealPlanRepository.findById(id);
     }
 
     /**
@@ -78,7 +152,7 @@ public class MealPlanService {
      */
     public Uni<MealPlan> updateMealPlan(ObjectId id, MealPlan updatedMealPlan) throws ValidationException {
         validateMealPlan(updatedMealPlan);
-        return Panache.withTransaction(() -> MealPlan.<MealPlan>findById(id)
+        return transactions.withTransaction(() -> mealPlanRepository.findById(id)
                 .onItem().ifNull().failWith(() -> new NotFoundException("Meal plan not found"))
                 .onItem().transformToUni(existingMealPlan -> {
                     // Update fields
@@ -88,7 +162,7 @@ public class MealPlanService {
                     existingMealPlan.meals = updatedMealPlan.meals;
 
                     existingMealPlan.preUpdate();
-                    return existingMealPlan.update();
+                    return mealPlanRepository.update(existingMealPlan);
                 }));
     }
 
@@ -96,12 +170,12 @@ public class MealPlanService {
      * Delete a meal plan by ID
      */
     public Uni<Boolean> deleteMealPlan(ObjectId id) {
-        return Panache.withTransaction(() -> MealPlan.<MealPlan>findById(id)
+        return transactions.withTransaction(() -> mealPlanRepository.findById(id)
                 .onItem().transformToUni(mealPlan -> {
                     if (mealPlan == null) {
                         return Uni.createFrom().item(false);
                     }
-                    return mealPlan.delete().replaceWith(true);
+                    return mealPlanRepository.delete(mealPlan).replaceWith(true);
                 }));
     }
 
@@ -109,23 +183,25 @@ public class MealPlanService {
      * Find meal plans by date range
      */
     public Uni<List<MealPlan>> findMealPlansByDateRange(LocalDate start, LocalDate end) {
-        return MealPlan.findByDateRange(start, end);
+        return mealPlanRepository.findByDateRange(start, end);
     }
 
     /**
      * Find active meal plans
      */
     public Uni<List<MealPlan>> findActiveMealPlans() {
-        return MealPlan.findActiveMealPlans();
+        return mealPlanRepository.findIncludingDate(LocalDate.now());
     }
 
     /**
      * Complete a meal - mark as completed and remove ingredients from pantry
      * Equivalent to POST /api/mealPlans/[id]/meals/[mealIndex]/complete
+     * All pantry reductions are applied as one bulk write and committed together with the
+     * meal plan update
      */
     public Uni<MealPlan> completeMeal(ObjectId mealPlanId, int mealIndex) throws ValidationException {
-        return Panache.withTransaction(() -> MealPlan.<MealPlan>findById(mealPlanId)
-                .onItem().ifNull().failWith(() -> new ValidationException("Meal plan not found"))
+        MealCompletionEvent event = new MealCompletionEvent(mealPlanId.toHexString(), mealIndex, true);
+        return event.timing(transactions.withTransaction(session -> findMealPlan(session, mealPlanId)
                 .onItem().transformToUni(mealPlan -> {
                     if (mealIndex < 0 || mealIndex >= mealPlan.meals.size()) {
                         return Uni.createFrom().failure(new ValidationException("Meal not found"));
@@ -138,54 +214,55 @@ public class MealPlanService {
                     }
 
                     // Get recipe details
-                    return Recipe.<Recipe>findById(meal.recipe)
+                    return recipeRepository.findById(meal.recipe)
                             .onItem().ifNull().failWith(() -> new ValidationException("Recipe not found"))
                             .onItem().transformToUni(recipe -> {
-                                // Process ingredients sequentially
-                                List<MealPlan.RemovedIngredient> removedIngredients = new ArrayList<>();
-
-                                // Create a chain of Uni operations for each ingredient
-                                Uni<Void> ingredientChain = Uni.createFrom().voidItem();
-
+                                // Compute all pantry reductions up front
+                                List<PantryQuantityChange> reductions = new ArrayList<>();
                                 for (Recipe.Ingredient ingredient : recipe.ingredients) {
                                     double requiredQuantity = ingredient.quantity * meal.servings / recipe.servings;
-
-                                    ingredientChain = ingredientChain.onItem()
-                                            .transformToUni(ignored -> pantryService.reduceIngredientQuantity(
-                                                    ingredient.name,
-                                                    ingredient.unit,
-                                                    requiredQuantity)
-                                                    .onItem().invoke(success -> {
-                                                        if (success) {
-                                                            removedIngredients.add(new MealPlan.RemovedIngredient(
-                                                                    ingredient.name,
-                                                                    requiredQuantity,
-                                                                    ingredient.unit,
-                                                                    ingredient._id.toString()));
-                                                        }
-                                                    })
-                                                    // Ignore failures - continue even if ingredient not found
-                                                    .onFailure().recoverWithNull()
-                                                    .replaceWithVoid());
+                                    reductions.add(PantryQuantityChange.reduce(
+                                            ingredient.name,
+                                            ingredient.unit,
+                                            requiredQuantity));
                                 }
 
-                                return ingredientChain.onItem().transformToUni(ignored -> {
-                                    // Mark meal as completed
-                                    meal.markAsCompleted(removedIngredients);
-                                    mealPlan.preUpdate();
-                                    return mealPlan.update();
-                                });
+                                // Ingredients missing from the pantry are skipped - the meal is completed anyway
+                                return pantryService.reduceAvailableQuantities(session, reductions)
+                                        .onItem().transformToUni(applied -> {
+                                            recordPantryMatches(applied);
+                                            event.ingredientCount = reductions.size();
+                                            List<MealPlan.RemovedIngredient> removedIngredients = new ArrayList<>();
+                                            for (int i = 0; i < reductions.size(); i++) {
+                                                if (applied.get(i)) {
+                                                    Recipe.Ingredient ingredient = recipe.ingredients.get(i);
+                                                    removedIngredients.add(new MealPlan.RemovedIngredient(
+                                                            ingredient.name,
+                                                            -reductions.get(i).delta(),
+                                                            ingredient.unit,
+                                                            ingredient._id.toString()));
+                                                }
+                                            }
+
+                                            // Mark meal as completed
+                                            meal.markAsCompleted(removedIngredients);
+                                            event.pantryItemsChanged = removedIngredients.size();
+                                            return saveMealPlan(session, mealPlan);
+                                        });
                             });
-                }));
+                }))
+                .plug(pantryService::invalidatingSnapshot));
     }
 
     /**
      * Uncomplete a meal - mark as uncompleted and restore ingredients to pantry
      * Equivalent to DELETE /api/mealPlans/[id]/meals/[mealIndex]/complete
+     * All pantry restores are applied as one bulk write and committed together with the
+     * meal plan update
      */
     public Uni<MealPlan> uncompleteMeal(ObjectId mealPlanId, int mealIndex) throws ValidationException {
-        return Panache.withTransaction(() -> MealPlan.<MealPlan>findById(mealPlanId)
-                .onItem().ifNull().failWith(() -> new ValidationException("Meal plan not found"))
+        MealCompletionEvent event = new MealCompletionEvent(mealPlanId.toHexString(), mealIndex, false);
+        return event.timing(transactions.withTransaction(session -> findMealPlan(session, mealPlanId)
                 .onItem().transformToUni(mealPlan -> {
                     if (mealIndex < 0 || mealIndex >= mealPlan.meals.size()) {
                         return Uni.createFrom().failure(new ValidationException("Meal not found"));
@@ -197,25 +274,55 @@ public class MealPlanService {
                         return Uni.createFrom().failure(new ValidationException("Meal is not marked as completed"));
                     }
 
-                    // Create a chain of Uni operations for each removed ingredient
-                    Uni<Void> restoreChain = Uni.createFrom().voidItem();
-
+                    List<PantryQuantityChange> restores = new ArrayList<>();
                     for (MealPlan.RemovedIngredient removedIngredient : meal.removedIngredients) {
-                        restoreChain = restoreChain.onItem()
-                                .transformToUni(ignored -> pantryService.increaseIngredientQuantity(
-                                        removedIngredient.ingredientName,
-                                        removedIngredient.unit,
-                                        removedIngredient.quantity)
-                                        .replaceWithVoid());
+                        restores.add(PantryQuantityChange.increase(
+                                removedIngredient.ingredientName,
+                                removedIngredient.unit,
+                                removedIngredient.quantity,
+                                null));
                     }
 
-                    return restoreChain.onItem().transformToUni(ignored -> {
-                        // Mark meal as uncompleted
-                        meal.markAsUncompleted();
-                        mealPlan.preUpdate();
-                        return mealPlan.update();
-                    });
-                }));
+                    event.ingredientCount = restores.size();
+                    event.pantryItemsChanged = restores.size();
+                    return pantryService.applyQuantityChanges(session, restores)
+                            .onItem().transformToUni(ignored -> {
+                                // Mark meal as uncompleted
+                                meal.markAsUncompleted();
+                                return saveMealPlan(session, mealPlan);
+                            });
+                }))
+                .plug(pantryService::invalidatingSnapshot));
+    }
+
+    /**
+     * Count the ingredients of a completed meal that the pantry covered and those it did not
+     */
+    private void recordPantryMatches(List<Boolean> applied) {
+        int matched = 0;
+        for (Boolean covered : applied) {
+            if (covered) {
+                matched++;
+            }
+        }
+        registry.counter(Metrics.PANTRY_MATCHES, "result", "matched").increment(matched);
+        registry.counter(Metrics.PANTRY_MATCHES, "result", "missed").increment(applied.size() - matched);
+    }
+
+    /**
+     * Read a meal plan inside a transaction, failing if it does not exist
+     */
+    private Uni<MealPlan> findMealPlan(ClientSession session, ObjectId mealPlanId) {
+        return mealPlanRepository.findById(session, mealPlanId)
+                .onItem().ifNull().failWith(() -> new ValidationException("Meal plan not found"));
+    }
+
+    /**
+     * Replace a meal plan document inside a transaction
+     */
+    private Uni<MealPlan> saveMealPlan(ClientSession session, MealPlan mealPlan) {
+        mealPlan.preUpdate();
+        return mealPlanRepository.replace(session, mealPlan);
     }
 
     /**
@@ -263,70 +370,141 @@ public class MealPlanService {
     }
 
     public Uni<List<MealPlanWithRecipes>> findMealPlansIncludeDate(LocalDate date) {
-        return MealPlan.findMealPlansIncludeDate(date)
+        return mealPlanRepository.findIncludingDate(date)
                 .onItem().transformToUni(this::populateMealPlansWithRecipes);
     }
 
     /**
      * Populate meal plans with recipe details
-     * Fetches full recipe data for each meal in the meal plans
+     * Loads the distinct recipes of all plans with a single query
      */
     private Uni<List<MealPlanWithRecipes>> populateMealPlansWithRecipes(List<MealPlan> mealPlans) {
         if (mealPlans == null || mealPlans.isEmpty()) {
             return Uni.createFrom().item(new ArrayList<>());
         }
 
-        List<Uni<MealPlanWithRecipes>> populatedPlans = new ArrayList<>();
+        return fetchRecipesById(mealPlans)
+                .onItem().transform(recipesById -> {
+                    List<MealPlanWithRecipes> result = new ArrayList<>(mealPlans.size());
+                    for (MealPlan mealPlan : mealPlans) {
+                        result.add(toMealPlanWithRecipes(mealPlan, recipesById));
+                    }
+                    return result;
+                });
+    }
 
-        for (MealPlan mealPlan : mealPlans) {
-            populatedPlans.add(populateSingleMealPlanWithRecipes(mealPlan));
+    /**
+     * Convert meal plans to the normalized format, loading their recipes with a single query
+     */
+    private Uni<List<NormalizedMealPlan>> normalizeMealPlans(List<MealPlan> mealPlans) {
+        if (mealPlans == null || mealPlans.isEmpty()) {
+            return Uni.createFrom().item(new ArrayList<>());
         }
 
-        return Uni.combine().all().unis(populatedPlans).combinedWith(list -> {
-            List<MealPlanWithRecipes> result = new ArrayList<>();
-            for (Object item : list) {
-                result.add((MealPlanWithRecipes) item);
-            }
-            return result;
-        });
+        return fetchRecipesById(mealPlans)
+                .onItem().transform(recipesById -> {
+                    List<NormalizedMealPlan> result = new ArrayList<>(mealPlans.size());
+                    for (MealPlan mealPlan : mealPlans) {
+                        result.add(toNormalizedMealPlan(mealPlan, recipesById));
+                    }
+                    return result;
+                });
     }
 
     /**
      * Populate a single meal plan with recipe details
      */
     private Uni<MealPlanWithRecipes> populateSingleMealPlanWithRecipes(MealPlan mealPlan) {
-        MealPlanWithRecipes dto = new MealPlanWithRecipes(mealPlan);
+        return fetchRecipesById(List.of(mealPlan))
+                .onItem().transform(recipesById -> toMealPlanWithRecipes(mealPlan, recipesById));
+    }
 
-        if (mealPlan.meals == null || mealPlan.meals.isEmpty()) {
-            return Uni.createFrom().item(dto);
+    /**
+     * Load every recipe referenced by the given meal plans, keyed by ID
+     */
+    private Uni<Map<ObjectId, Recipe>> fetchRecipesById(List<MealPlan> mealPlans) {
+        Set<ObjectId> recipeIds = new HashSet<>();
+        for (MealPlan mealPlan : mealPlans) {
+            if (mealPlan.meals == null) {
+                continue;
+            }
+            for (MealPlan.MealPlanItem mealItem : mealPlan.meals) {
+                if (mealItem.recipe != null) {
+                    recipeIds.add(mealItem.recipe);
+                }
+            }
         }
 
-        // Create a list of Uni operations to fetch each recipe
-        List<Uni<MealPlanWithRecipes.MealPlanItemWithRecipe>> mealItemUnis = new ArrayList<>();
+        if (recipeIds.isEmpty()) {
+            return Uni.createFrom().item(Map.of());
+        }
 
-        for (MealPlan.MealPlanItem mealItem : mealPlan.meals) {
-            Uni<MealPlanWithRecipes.MealPlanItemWithRecipe> mealItemUni = Recipe.<Recipe>findById(mealItem.recipe)
-                    .onItem().transform(recipe -> {
-                        if (recipe == null) {
-                            // If recipe not found, create a placeholder
-                            Recipe placeholderRecipe = new Recipe();
-                            placeholderRecipe.name = "Recipe not found";
-                            placeholderRecipe.ingredients = new ArrayList<>();
-                            placeholderRecipe.instructions = new ArrayList<>();
-                            return new MealPlanWithRecipes.MealPlanItemWithRecipe(placeholderRecipe, mealItem);
-                        }
-                        return new MealPlanWithRecipes.MealPlanItemWithRecipe(recipe, mealItem);
-                    });
-
-            mealItemUnis.add(mealItemUni);
+        return recipeRepository.findByIds(recipeIds)
+                .onItem().transform(recipes -> {
+                    registry.summary(Metrics.MEAL_PLAN_RECIPES_FETCHED).record(recipes.size());
+                    Map<ObjectId, Recipe> recipesById = new HashMap<>(recipes.size() * 2);
+                    for (Recipe recipe : recipes) {
+                        recipesById.put(recipe.id, recipe);
+                    }
+                    return recipesById;
+                });
+    }
+
+    /**
+     * Build the normalized DTO for a meal plan from already loaded recipes
+     * Each referenced recipe is added to the recipes map once
+     */
+    static NormalizedMealPlan toNormalizedMealPlan(MealPlan mealPlan, Map<ObjectId, Recipe> recipesById) {
+        NormalizedMealPlan dto = new NormalizedMealPlan(mealPlan);
+
+        if (mealPlan.meals == null || mealPlan.meals.isEmpty()) {
+            return dto;
         }
 
-        // Combine all recipe fetches and build the final DTO
-        return Uni.combine().all().unis(mealItemUnis).combinedWith(list -> {
-            for (Object item : list) {
-                dto.meals.add((MealPlanWithRecipes.MealPlanItemWithRecipe) item);
+        for (MealPlan.MealPlanItem mealItem : mealPlan.meals) {
+            NormalizedMealPlan.MealReference meal = new NormalizedMealPlan.MealReference(mealItem);
+            dto.meals.add(meal);
+            if (meal.recipe == null || dto.recipes.containsKey(meal.recipe)) {
+                continue;
+            }
+
+            Recipe recipe = recipesById.get(mealItem.recipe);
+            if (recipe == null) {
+                // If recipe not found, create a placeholder under the referenced ID
+                recipe = new Recipe();
+                recipe.id = mealItem.recipe;
+                recipe.name = "Recipe not found";
+                recipe.ingredients = new ArrayList<>();
+                recipe.instructions = new ArrayList<>();
             }
+            dto.recipes.put(meal.recipe, new MealPlanWithRecipes.PopulatedRecipe(recipe));
+        }
+
+        return dto;
+    }
+
+    /**
+     * Build the populated DTO for a meal plan from already loaded recipes
+     */
+    static MealPlanWithRecipes toMealPlanWithRecipes(MealPlan mealPlan, Map<ObjectId, Recipe> recipesById) {
+        MealPlanWithRecipes dto = new MealPlanWithRecipes(mealPlan);
+
+        if (mealPlan.meals == null || mealPlan.meals.isEmpty()) {
             return dto;
-        });
+        }
+
+        for (MealPlan.MealPlanItem mealItem : mealPlan.meals) {
+            Recipe recipe = recipesById.get(mealItem.recipe);
+            if (recipe == null) {
+                // If recipe not found, create a placeholder
+                recipe = new Recipe();
+                recipe.name = "Recipe not found";
+                recipe.ingredients = new ArrayList<>();
+                recipe.instructions = new ArrayList<>();
+            }
+            dto.meals.add(new MealPlanWithRecipes.MealPlanItemWithRecipe(recipe, mealItem));
+        }
+
+        return dto;
     }
 }
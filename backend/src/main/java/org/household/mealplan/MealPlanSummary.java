@@ -0,0 +1,29 @@
+package org.household.mealplan;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.household.common.BsonDates;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Meal plan without its meals and recipes, for the meal plan list
+ * Meal counts are computed by the database, see {@link MealPlan#findSummaries()}
+ */
+public record MealPlanSummary(ObjectId id, String name, LocalDate startDate, LocalDate endDate,
+                              LocalDateTime createdAt, LocalDateTime updatedAt, int totalMeals,
+                              int completedMeals) {
+
+    static MealPlanSummary fromDocument(Document document) {
+        return new MealPlanSummary(
+                document.getObjectId("_id"),
+                document.getString("name"),
+                BsonDates.toLocalDate(document.getDate("startDate")),
+                BsonDates.toLocalDate(document.getDate("endDate")),
+                BsonDates.toLocalDateTime(document.getDate("createdAt")),
+                BsonDates.toLocalDateTime(document.getDate("updatedAt")),
+                document.getInteger("totalMeals", 0),
+                document.getInteger("completedMeals", 0));
+    }
+}
@@ -0,0 +1,84 @@
+package org.household.mealplan;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.KeysetPagination;
+import org.household.common.Page;
+import org.household.common.PageCursor;
+import org.household.common.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Meal plans in MongoDB, through the Panache entity
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+public class MongoMealPlanRepository implements MealPlanRepository {
+
+    @Override
+    public Uni<List<MealPlan>> findAllOrderedByStartDate() {
+        return MealPlan.findAllOrderedByStartDate();
+    }
+
+    @Override
+    public Uni<List<MealPlanSummary>> findSummaries() {
+        return MealPlan.findSummaries();
+    }
+
+    @Override
+    public Uni<Page<MealPlan>> findPage(PageRequest request) {
+        return KeysetPagination.find(MealPlan.mongoCollection(), request,
+                mealPlan -> new PageCursor(mealPlan.createdAt, mealPlan.id));
+    }
+
+    @Override
+    public Uni<MealPlan> findById(ObjectId id) {
+        return MealPlan.findById(id);
+    }
+
+    @Override
+    public Uni<MealPlan> findById(ClientSession session, ObjectId id) {
+        return MealPlan.<MealPlan>mongoCollection()
+                .find(session, Filters.eq("_id", id))
+                .collect().first();
+    }
+
+    @Override
+    public Uni<List<MealPlan>> findByDateRange(LocalDate start, LocalDate end) {
+        return MealPlan.findByDateRange(start, end);
+    }
+
+    @Override
+    public Uni<List<MealPlan>> findIncludingDate(LocalDate date) {
+        return MealPlan.findMealPlansIncludeDate(date);
+    }
+
+    @Override
+    public Uni<MealPlan> persist(MealPlan mealPlan) {
+        return mealPlan.persist();
+    }
+
+    @Override
+    public Uni<MealPlan> update(MealPlan mealPlan) {
+        return mealPlan.update();
+    }
+
+    @Override
+    public Uni<MealPlan> replace(ClientSession session, MealPlan mealPlan) {
+        return MealPlan.<MealPlan>mongoCollection()
+                .replaceOne(session, Filters.eq("_id", mealPlan.id), mealPlan)
+                .replaceWith(mealPlan);
+    }
+
+    @Override
+    public Uni<Void> delete(MealPlan mealPlan) {
+        return mealPlan.delete();
+    }
+}
@@ -0,0 +1,67 @@
+package org.household.mealplan;
+
+import org.bson.types.ObjectId;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO representing a MealPlan whose meals reference recipes by ID
+ * Every recipe used by the plan appears once in the recipes map, however many meals use it;
+ * MealPlanWithRecipes embeds a copy of the recipe in every meal instead
+ */
+public class NormalizedMealPlan {
+
+    public ObjectId id;
+    public String name;
+    public LocalDate startDate;
+    public LocalDate endDate;
+    public List<MealReference> meals = new ArrayList<>();
+    public Map<String, MealPlanWithRecipes.PopulatedRecipe> recipes = new LinkedHashMap<>();
+    public LocalDateTime createdAt;
+    public LocalDateTime updatedAt;
+
+    /**
+     * Inner class representing a meal plan item with the ID of its recipe
+     */
+    public static class MealReference {
+        public String recipe;
+        public LocalDate date;
+        public MealPlan.MealType mealType;
+        public Integer servings;
+        public Boolean isCompleted = false;
+        public LocalDateTime completedAt;
+        public List<MealPlan.RemovedIngredient> removedIngredients = new ArrayList<>();
+
+        public MealReference() {
+        }
+
+        public MealReference(MealPlan.MealPlanItem mealItem) {
+            this.recipe = mealItem.recipe != null ? mealItem.recipe.toString() : null;
+            this.date = mealItem.date;
+            this.mealType = mealItem.mealType;
+            this.servings = mealItem.servings;
+            this.isCompleted = mealItem.isCompleted;
+            this.completedAt = mealItem.completedAt;
+            this.removedIngredients = mealItem.removedIngredients != null
+                    ? mealItem.removedIngredients : new ArrayList<>();
+        }
+    }
+
+    public NormalizedMealPlan() {
+    }
+
+    public NormalizedMealPlan(MealPlan mealPlan) {
+        this.id = mealPlan.id;
+        this.name = mealPlan.name;
+        this.startDate = mealPlan.startDate;
+        this.endDate = mealPlan.endDate;
+        this.createdAt = mealPlan.createdAt;
+        this.updatedAt = mealPlan.updatedAt;
+        // meals and recipes will be populated separately
+    }
+}
@@ -0,0 +1,121 @@
+package org.household.pantry;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.InMemoryCollection;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.units.Unit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pantry items kept in memory, for load testing without MongoDB
+ * Quantity changes follow the MongoDB update pipeline: match by name and unit keys, add the
+ * base delta and derive the quantity in the stored unit; sessions are ignored
+ */
+@ApplicationScoped
+@IfBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY)
+public class InMemoryPantryItemRepository implements PantryItemRepository {
+
+    private final InMemoryCollection<PantryItem> pantryItems = new InMemoryCollection<>(PantryItem.class);
+
+    @Override
+    public Uni<List<PantryItem>> findAllOrderedByCreatedAt() {
+        return Uni.createFrom().item(() -> pantryItems.find(item -> true,
+                Comparator.comparing((PantryItem item) -> item.createdAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder())).reversed()));
+    }
+
+    @Override
+    public Uni<Page<PantryItem>> findPage(PageRequest request) {
+        return Uni.createFrom().item(() -> pantryItems.findPage(request, item -> item.createdAt));
+    }
+
+    @Override
+    public Uni<PantryItem> findById(ObjectId id) {
+        return Uni.createFrom().item(() -> pantryItems.findById(id));
+    }
+
+    @Override
+    public Uni<PantryItem> persist(PantryItem pantryItem) {
+        return Uni.createFrom().item(() -> pantryItems.insert(pantryItem));
+    }
+
+    @Override
+    public Uni<PantryItem> update(PantryItem pantryItem) {
+        return Uni.createFrom().item(() -> pantryItems.replace(pantryItem));
+    }
+
+    @Override
+    public Uni<Void> delete(PantryItem pantryItem) {
+        return Uni.createFrom().item(() -> pantryItems.delete(pantryItem.id)).replaceWithVoid();
+    }
+
+    @Override
+    public Uni<List<PantryItem>> findMatching(ClientSession session, List<PantryQuantityChange> changes) {
+        Set<String> keys = new HashSet<>();
+        for (PantryQuantityChange change : changes) {
+            keys.add(PantryAvailability.key(change.name(), change.unit()));
+        }
+        return Uni.createFrom().item(() -> pantryItems.find(item -> item.name != null && item.unit != null
+                && keys.contains(PantryAvailability.key(item.name, item.unit)), null));
+    }
+
+    @Override
+    public Uni<PantryItem> applyQuantityChange(PantryQuantityChange change) {
+        return Uni.createFrom().item(() -> apply(change, LocalDateTime.now(), new ArrayList<>()));
+    }
+
+    @Override
+    public Uni<List<PantryQuantityChange>> applyQuantityChanges(ClientSession session,
+                                                              List<PantryQuantityChange> changes) {
+        return Uni.createFrom().item(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<PantryQuantityChange> creating = new ArrayList<>();
+            for (PantryQuantityChange change : changes) {
+                apply(change, now, creating);
+            }
+            return creating;
+        });
+    }
+
+    /**
+     * Apply one change, adding it to creating when it creates the pantry item
+     */
+    private PantryItem apply(PantryQuantityChange change, LocalDateTime now, List<PantryQuantityChange> creating) {
+        String nameKey = PantryItem.nameKey(change.name());
+        String unitKey = Unit.dimensionKey(change.unit());
+        long required = -change.baseDelta();
+
+        return pantryItems.update(
+                item -> nameKey.equals(item.nameKey) && unitKey.equals(item.unitKey)
+                        && (!change.isReduction() || item.baseQuantity != null && item.baseQuantity >= required),
+                item -> {
+                    item.baseQuantity = (item.baseQuantity != null ? item.baseQuantity : 0L) + change.baseDelta();
+                    item.quantity = (double) item.baseQuantity / item.unitFactor;
+                    item.updatedAt = now;
+                },
+                change.isReduction() ? null : () -> {
+                    creating.add(change);
+                    PantryItem item = new PantryItem();
+                    item.name = change.name();
+                    item.unit = change.unit();
+                    item.category = change.category();
+                    item.nameKey = nameKey;
+                    item.unitKey = unitKey;
+                    item.unitFactor = Unit.factorOf(change.unit());
+                    item.createdAt = now;
+                    return item;
+                });
+    }
+}
@@ -0,0 +1,176 @@
+package org.household.pantry;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.mongodb.reactive.ReactiveMongoCollection;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.zero.flow.adapters.AdaptersToFlow;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.KeysetPagination;
+import org.household.common.Page;
+import org.household.common.PageCursor;
+import org.household.common.PageRequest;
+import org.household.units.Unit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pantry items in MongoDB, through the Panache entity
+ * Quantity changes run as update pipelines on the match key index, so concurrent changes are
+ * never lost and reductions never take a quantity below zero
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+public class MongoPantryItemRepository implements PantryItemRepository {
+
+    @Override
+    public Uni<List<PantryItem>> findAllOrderedByCreatedAt() {
+        return PantryItem.findAllOrderedByCreatedAt();
+    }
+
+    @Override
+    public Uni<Page<PantryItem>> findPage(PageRequest request) {
+        return KeysetPagination.find(PantryItem.mongoCollection(), request,
+                item -> new PageCursor(item.createdAt, item.id));
+    }
+
+    @Override
+    public Uni<PantryItem> findById(ObjectId id) {
+        return PantryItem.findById(id);
+    }
+
+    @Override
+    public Uni<PantryItem> persist(PantryItem pantryItem) {
+        return pantryItem.persist();
+    }
+
+    @Override
+    public Uni<PantryItem> update(PantryItem pantryItem) {
+        return pantryItem.update();
+    }
+
+    @Override
+    public Uni<Void> delete(PantryItem pantryItem) {
+        return pantryItem.delete();
+    }
+
+    @Override
+    public Uni<List<PantryItem>> findMatching(ClientSession session, List<PantryQuantityChange> changes) {
+        List<Bson> itemFilters = new ArrayList<>(changes.size());
+        for (PantryQuantityChange change : changes) {
+            itemFilters.add(matchKeyFilter(change));
+        }
+
+        ReactiveMongoCollection<PantryItem> collection = PantryItem.mongoCollection();
+        return (session != null
+                ? collection.find(session, Filters.or(itemFilters))
+                : collection.find(Filters.or(itemFilters)))
+                .collect().asList();
+    }
+
+    /**
+     * Runs as findOneAndUpdate through the driver collection, since update pipelines are not
+     * exposed on the Mutiny wrapper
+     */
+    @Override
+    public Uni<PantryItem> applyQuantityChange(PantryQuantityChange change) {
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .upsert(!change.isReduction())
+                .returnDocument(ReturnDocument.AFTER);
+        return Uni.createFrom().publisher(AdaptersToFlow.publisher(
+                PantryItem.<PantryItem>mongoCollection().unwrap()
+                        .findOneAndUpdate(quantityFilter(change),
+                                quantityUpdate(change, LocalDateTime.now()), options)));
+    }
+
+    /**
+     * Runs as one unordered bulkWrite; its upserts tell which changes created an item
+     */
+    @Override
+    public Uni<List<PantryQuantityChange>> applyQuantityChanges(ClientSession session, List<PantryQuantityChange> changes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WriteModel<PantryItem>> writes = new ArrayList<>(changes.size());
+        for (PantryQuantityChange change : changes) {
+            writes.add(new UpdateOneModel<>(quantityFilter(change), quantityUpdate(change, now),
+                    new UpdateOptions().upsert(!change.isReduction())));
+        }
+
+        BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+        ReactiveMongoCollection<PantryItem> collection = PantryItem.mongoCollection();
+        return (session != null
+                ? collection.bulkWrite(session, writes, options)
+                : collection.bulkWrite(writes, options))
+                .onItem().transform(result -> result.getUpserts().stream()
+                        .map(upsert -> changes.get(upsert.getIndex()))
+                        .toList());
+    }
+
+    /**
+     * Filter matching the pantry item for a change by its normalized name and unit dimension
+     */
+    private Bson matchKeyFilter(PantryQuantityChange change) {
+        return Filters.and(
+                Filters.eq(PantryItem.NAME_KEY_FIELD, PantryItem.nameKey(change.name())),
+                Filters.eq(PantryItem.UNIT_KEY_FIELD, Unit.dimensionKey(change.unit())));
+    }
+
+    /**
+     * Filter matching the pantry item for a change; reductions also require enough quantity
+     */
+    private Bson quantityFilter(PantryQuantityChange change) {
+        Bson filter = matchKeyFilter(change);
+        if (change.isReduction()) {
+            return Filters.and(filter,
+                    Filters.gte(PantryItem.BASE_QUANTITY_FIELD, -change.baseDelta()));
+        }
+        return filter;
+    }
+
+    /**
+     * Update pipeline for a change: add the delta to the base quantity, then derive quantity in
+     * the stored unit, which may differ from the change's unit
+     * Upserts copy the match keys from the filter and take the name, unit and category of the
+     * change; literals are wrapped in $literal so user input is never read as a field path
+     */
+    private List<Bson> quantityUpdate(PantryQuantityChange change, LocalDateTime now) {
+        Document set = new Document()
+                .append(PantryItem.BASE_QUANTITY_FIELD, new Document("$add", List.of(
+                        new Document("$ifNull", List.of("$" + PantryItem.BASE_QUANTITY_FIELD, 0L)),
+                        change.baseDelta())))
+                .append("updatedAt", now);
+
+        if (!change.isReduction()) {
+            Document inserting = new Document("$eq", List.of(new Document("$type", "$createdAt"),
+                    "missing"));
+            set.append("name", ifNull("$name", change.name()))
+                    .append("unit", ifNull("$unit", change.unit()))
+                    .append(PantryItem.UNIT_FACTOR_FIELD,
+                            ifNull("$" + PantryItem.UNIT_FACTOR_FIELD, Unit.factorOf(change.unit())))
+                    .append("category", new Document("$cond", List.of(inserting,
+                            new Document("$literal", change.category()), "$category")))
+                    .append("createdAt", ifNull("$createdAt", now));
+        }
+
+        return List.of(
+                new Document("$set", set),
+                new Document("$set", new Document("quantity", new Document("$divide", List.of(
+                        "$" + PantryItem.BASE_QUANTITY_FIELD, "$" + PantryItem.UNIT_FACTOR_FIELD)))));
+    }
+
+    private static Document ifNull(String fieldPath, Object fallback) {
+        return new Document("$ifNull", List.of(fieldPath, new Document("$literal", fallback)));
+    }
+}
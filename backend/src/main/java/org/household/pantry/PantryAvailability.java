@@ -0,0 +1,87 @@
+package org.household.pantry;
+
+import org.household.units.Unit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only index of pantry quantities keyed by normalized ingredient name and unit dimension
+ * Built once from a pantry read so availability checks are hash lookups instead of a scan per item
+ * Quantities are fixed-point base quantities, so a requirement in g is checked against an item in kg
+ */
+public class PantryAvailability {
+
+    private static final PantryAvailability EMPTY = new PantryAvailability(Map.of());
+
+    private final Map<String, Long> quantities;
+
+    private PantryAvailability(Map<String, Long> quantities) {
+        this.quantities = quantities;
+    }
+
+    /**
+     * Build the index from pantry items
+     * When several items share a key the largest quantity wins, because availability
+     * is decided by a single pantry item covering the required quantity
+     */
+    public static PantryAvailability of(List<PantryItem> pantryItems) {
+        if (pantryItems == null || pantryItems.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<String, Long> quantities = new HashMap<>(pantryItems.size() * 2);
+        for (PantryItem pantryItem : pantryItems) {
+            if (pantryItem.name == null || pantryItem.unit == null || pantryItem.quantity == null) {
+                continue;
+            }
+            quantities.merge(key(pantryItem.name, pantryItem.unit), pantryItem.baseQuantityOrCompute(),
+                Math::max);
+        }
+        return new PantryAvailability(quantities);
+    }
+
+    /**
+     * Check if the pantry holds at least the given quantity of an ingredient
+     */
+    public boolean isAvailable(String name, String unit, Double quantity) {
+        if (name == null || unit == null) {
+            return false;
+        }
+        Long available = quantities.get(key(name, unit));
+        return available != null && (quantity == null || available >= Unit.toBase(quantity, unit));
+    }
+
+    /**
+     * Check if the pantry holds at least the given fixed-point base quantity under a lookup key
+     */
+    public boolean hasBaseQuantity(String key, long baseQuantity) {
+        Long available = quantities.get(key);
+        return available != null && available >= baseQuantity;
+    }
+
+    /**
+     * Lookup keys of all indexed name and unit combinations, see {@link #key(String, String)}
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(quantities.keySet());
+    }
+
+    /**
+     * Number of distinct name and unit combinations in the index
+     */
+    public int size() {
+        return quantities.size();
+    }
+
+    /**
+     * Build the lookup key for an ingredient, the same normalized name and unit dimension
+     * stored on pantry items as nameKey and unitKey
+     */
+    public static String key(String name, String unit) {
+        return PantryItem.nameKey(name) + "|" + Unit.dimensionKey(unit);
+    }
+}
@@ -1,19 +1,34 @@
 package org.household.pantry;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.mongodb.panache.common.MongoEntity;
 import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoEntity;
 import io.quarkus.panache.common.Sort;
 import io.smallrye.mutiny.Uni;
 import jakarta.validation.constraints.*;
+import org.household.common.SearchPatterns;
+import org.household.units.Unit;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 
 @MongoEntity(collection = "pantryitems")
 public class PantryItem extends ReactivePanacheMongoEntity {
 
+    public static final String NAME_KEY_FIELD = "nameKey";
+    public static final String UNIT_KEY_FIELD = "unitKey";
+    public static final String BASE_QUANTITY_FIELD = "baseQuantity";
+    public static final String UNIT_FACTOR_FIELD = "unitFactor";
+
+    /**
+     * Top-level fields a page request may select
+     */
+    public static final Set<String> PAGE_FIELDS = Set.of("id", "name", "quantity", "unit", "category", "expiryDate",
+            "createdAt", "updatedAt");
+
     @NotBlank(message = "Item name is required")
     public String name;
 
@@ -31,6 +46,29 @@ public class PantryItem extends ReactivePanacheMongoEntity {
 
     public LocalDateTime updatedAt;
 
+    /**
+     * Normalized name and unit dimension used to match ingredients to this item, see
+     * {@link #nameKey(String)} and {@link Unit#dimensionKey(String)}; unique together in the collection
+     */
+    @JsonIgnore
+    public String nameKey;
+
+    @JsonIgnore
+    public String unitKey;
+
+    /**
+     * Quantity as a fixed-point long in the base unit of its dimension, see {@link Unit#toBase(double, String)}
+     * Quantity changes are applied to this field and quantity is derived from it
+     */
+    @JsonIgnore
+    public Long baseQuantity;
+
+    /**
+     * {@link Unit#factorOf(String)} of the stored unit, kept so database updates can derive quantity
+     */
+    @JsonIgnore
+    public Long unitFactor;
+
     /**
      * Lifecycle method called before persisting
      */
@@ -40,6 +78,8 @@ public class PantryItem extends ReactivePanacheMongoEntity {
             createdAt = now;
         }
         updatedAt = now;
+        updateMatchKeys();
+        updateBaseQuantity();
     }
 
     /**
@@ -47,60 +87,67 @@ public class PantryItem extends ReactivePanacheMongoEntity {
      */
     public void preUpdate() {
         updatedAt = LocalDateTime.now();
+        updateMatchKeys();
+        updateBaseQuantity();
     }
 
     /**
-     * Find pantry items by name containing the given text (case insensitive)
+     * Recompute the match keys from the current name and unit
      */
-    public static Uni<List<PantryItem>> findByNameContaining(String name) {
-        return find("name like ?1", "(?i).*" + name + ".*").list();
+    public void updateMatchKeys() {
+        nameKey = name != null ? nameKey(name) : null;
+        unitKey = unit != null ? Unit.dimensionKey(unit) : null;
     }
 
     /**
-     * Find pantry items by category
+     * Recompute the base quantity and unit factor from the current quantity and unit
      */
-    public static Uni<List<PantryItem>> findByCategory(String category) {
-        return find("category", category).list();
+    public void updateBaseQuantity() {
+        unitFactor = unit != null ? Unit.factorOf(unit) : null;
+        baseQuantity = quantity != null && unit != null ? Unit.toBase(quantity, unit) : null;
     }
 
     /**
-     * Find pantry items expiring soon (within given days)
+     * Field-by-field copy of this item
      */
-    public static Uni<List<PantryItem>> findExpiringSoon(int days) {
-        LocalDate futureDate = LocalDate.now().plusDays(days);
-        return find("expiryDate <= ?1", futureDate).list();
+    public PantryItem copy() {
+        PantryItem copy = new PantryItem();
+        copy.id = id;
+        copy.name = name;
+        copy.quantity = quantity;
+        copy.unit = unit;
+        copy.category = category;
+        copy.expiryDate = expiryDate;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.nameKey = nameKey;
+        copy.unitKey = unitKey;
+        copy.baseQuantity = baseQuantity;
+        copy.unitFactor = unitFactor;
+        return copy;
     }
 
     /**
-     * Find all pantry items ordered by creation date (newest first)
+     * Base quantity, computed from quantity for items that don't have it stored yet
      */
-    public static Uni<List<PantryItem>> findAllOrderedByCreatedAt() {
-        return findAll(Sort.by("createdAt").descending()).list();
-    }
-
-    /**
-     * Find pantry item by exact name and unit (for ingredient matching)
-     */
-    public static Uni<PantryItem> findByNameAndUnit(String name, String unit) {
-        return find("name = ?1 and unit = ?2", name, unit).firstResult();
+    public long baseQuantityOrCompute() {
+        if (baseQuantity != null) {
+            return baseQuantity;
+        }
+        return quantity != null && unit != null ? Unit.toBase(quantity, unit) : 0L;
     }
 
     /**
-     * Reduce quantity by the specified amount
-     * Returns true if successful, false if not enough quantity available
+     * Normalized ingredient name used for matching (trimmed and lowercased)
      */
-    public boolean reduceQuantity(double amount) {
-        if (this.quantity >= amount) {
-            this.quantity -= amount;
-            return true;
-        }
-        return false;
+    public static String nameKey(String name) {
+        return SearchPatterns.normalize(name);
     }
 
     /**
-     * Increase quantity by the specified amount
+     * Find all pantry items ordered by creation date (newest first)
      */
-    public void increaseQuantity(double amount) {
-        this.quantity += amount;
+    public static Uni<List<PantryItem>> findAllOrderedByCreatedAt() {
+        return findAll(Sort.by("createdAt").descending()).list();
     }
 }
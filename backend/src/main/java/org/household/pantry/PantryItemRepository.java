@@ -0,0 +1,57 @@
+package org.household.pantry;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.smallrye.mutiny.Uni;
+import org.bson.types.ObjectId;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+
+import java.util.List;
+
+/**
+ * Data access for pantry items, backed by MongoDB or kept in memory depending on {@link org.household.common.DataStore}
+ * Quantity changes match pantry items by normalized name and unit dimension and add to their
+ * fixed-point base quantity, see {@link PantryQuantityChange}
+ */
+public interface PantryItemRepository {
+
+    /**
+     * All pantry items ordered by creation date (newest first)
+     */
+    Uni<List<PantryItem>> findAllOrderedByCreatedAt();
+
+    /**
+     * One page of pantry items, newest first
+     */
+    Uni<Page<PantryItem>> findPage(PageRequest request);
+
+    /**
+     * Pantry item with the given ID, or null
+     */
+    Uni<PantryItem> findById(ObjectId id);
+
+    Uni<PantryItem> persist(PantryItem pantryItem);
+
+    Uni<PantryItem> update(PantryItem pantryItem);
+
+    Uni<Void> delete(PantryItem pantryItem);
+
+    /**
+     * Pantry items matched by any of the changes, read inside the given session's transaction
+     * (no session when null)
+     */
+    Uni<List<PantryItem>> findMatching(ClientSession session, List<PantryQuantityChange> changes);
+
+    /**
+     * Apply a single change atomically and return the pantry item after it
+     * Increases create missing items; reductions only apply when enough quantity is available
+     * and emit null otherwise
+     */
+    Uni<PantryItem> applyQuantityChange(PantryQuantityChange change);
+
+    /**
+     * Apply changes, already merged per pantry item, as one batch inside the given session's
+     * transaction (no session when null), and return the changes that created a pantry item
+     */
+    Uni<List<PantryQuantityChange>> applyQuantityChanges(ClientSession session, List<PantryQuantityChange> changes);
+}
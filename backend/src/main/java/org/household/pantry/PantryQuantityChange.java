@@ -0,0 +1,29 @@
+package org.household.pantry;
+
+import org.household.units.Unit;
+
+/**
+ * A quantity change for the pantry item matching an ingredient name and unit
+ * Positive deltas increase (and create missing items), negative deltas reduce
+ */
+public record PantryQuantityChange(String name, String unit, double delta, String category) {
+
+    public static PantryQuantityChange increase(String name, String unit, double quantity, String category) {
+        return new PantryQuantityChange(name, unit, quantity, category);
+    }
+
+    public static PantryQuantityChange reduce(String name, String unit, double quantity) {
+        return new PantryQuantityChange(name, unit, -quantity, null);
+    }
+
+    public boolean isReduction() {
+        return delta < 0;
+    }
+
+    /**
+     * The delta as a fixed-point base quantity, see {@link Unit#toBase(double, String)}
+     */
+    public long baseDelta() {
+        return Unit.toBase(delta, unit);
+    }
+}
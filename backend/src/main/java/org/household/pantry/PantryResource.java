@@ -1,5 +1,7 @@
 package org.household.pantry;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -9,6 +11,9 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.bson.types.ObjectId;
 import org.household.common.ApiResponse;
+import org.household.common.Metrics;
+import org.household.common.PageRequest;
+import org.household.common.PagedResponse;
 import org.household.common.ParamConverterException;
 import org.household.common.ValidationException;
 import org.jboss.resteasy.reactive.RestResponse;
@@ -20,6 +25,7 @@ import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
 @Path("/api/pantry")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Timed(value = Metrics.API_REQUESTS, histogram = true)
 @Slf4j
 public class PantryResource {
 
@@ -27,15 +33,36 @@ public class PantryResource {
     PantryItemMapper mapper;
     @Inject
     PantryService pantryService;
+    @Inject
+    ObjectMapper objectMapper;
 
 
+    /**
+     * GET /api/pantry All pantry items, or one page when cursor, limit or fields is given
+     */
     @GET
-    public Uni<RestResponse<ApiResponse>> getAllPantryItems() {
+    public Uni<RestResponse<ApiResponse>> getAllPantryItems(@QueryParam("cursor") String cursor,
+        @QueryParam("limit") Integer limit, @QueryParam("fields") String fields) {
+        if (PageRequest.isRequested(cursor, limit, fields)) {
+            return PagedResponse.of(cursor, limit, fields, PantryItem.PAGE_FIELDS, "pantryItems", objectMapper,
+                pantryService::getPantryItemsPage);
+        }
+
         return pantryService.getAllPantryItems()
             .onItem()
             .transform(items -> RestResponse.ok(ApiResponse.success("pantryItems", items)));
     }
 
+    /**
+     * GET /api/pantry/cache/stats Hit and miss counters of the pantry snapshot
+     */
+    @GET
+    @Path("/cache/stats")
+    public Uni<RestResponse<ApiResponse>> getCacheStats() {
+        return Uni.createFrom().item(RestResponse.ok(
+            ApiResponse.success("cacheStats", pantryService.getSnapshotStats())));
+    }
+
     @POST
     public Uni<RestResponse<ApiResponse>> createPantryItem(
         @Valid @NotNull CreateItemRequest pantryItem) {
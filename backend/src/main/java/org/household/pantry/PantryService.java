@@ -1,15 +1,33 @@
 package org.household.pantry;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 
 import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.common.Transactions;
 import org.household.common.ValidationException;
+import org.household.diagnostics.PantryQuantityChangeEvent;
+import org.household.ingredient.IngredientSuggestionIndex;
+import org.household.units.Unit;
 
-import io.quarkus.mongodb.panache.common.reactive.Panache;
+import com.mongodb.reactivestreams.client.ClientSession;
 import io.smallrye.mutiny.Uni;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class for PantryItem business logic Equivalent to the logic in Next.js API routes for
@@ -18,11 +36,82 @@ import java.util.List;
 @ApplicationScoped
 public class PantryService {
 
+    @Inject
+    PantryItemRepository pantryItemRepository;
+
+    @Inject
+    Transactions transactions;
+
+    @Inject
+    IngredientSuggestionIndex ingredientSuggestions;
+
+    /**
+     * How long a loaded pantry snapshot is served before the collection is read again
+     */
+    @ConfigProperty(name = "pantry.snapshot.ttl", defaultValue = "PT5S")
+    Duration snapshotTtl;
+
+    /**
+     * In-memory copy of the pantry collection, dropped by every pantry write
+     * The generation is bumped on each invalidation so a load that raced with a write is not cached
+     * The snapshot is per process: only writes through this instance drop it, so with several
+     * instances (or writes made directly in the database) reads lag by up to pantry.snapshot.ttl
+     */
+    private volatile PantrySnapshot snapshot;
+    private long snapshotGeneration;
+    private final AtomicLong snapshotHits = new AtomicLong();
+    private final AtomicLong snapshotMisses = new AtomicLong();
+
     /**
      * Get all pantry items ordered by creation date (newest first)
+     * Served from the pantry snapshot; the returned items are shared and must not be modified
      */
     public Uni<List<PantryItem>> getAllPantryItems() {
-        return PantryItem.findAllOrderedByCreatedAt();
+        return getSnapshot().onItem().transform(PantrySnapshot::items);
+    }
+
+    /**
+     * Get one page of pantry items, newest first
+     * Read from the database, since pages may be projected to a subset of fields
+     */
+    public Uni<Page<PantryItem>> getPantryItemsPage(PageRequest request) {
+        return pantryItemRepository.findPage(request);
+    }
+
+    /**
+     * Pantry indexed by ingredient name and unit, served from the pantry snapshot
+     */
+    public Uni<PantryAvailability> getPantryAvailability() {
+        return getSnapshot().onItem().transform(PantrySnapshot::availability);
+    }
+
+    /**
+     * Drop the pantry snapshot once the given work terminates
+     * Every write in this service drops it when it applies; callers changing the pantry inside
+     * their own transaction plug their transaction into this as well, since a pantry read between
+     * the write and the commit may have cached the old quantities
+     */
+    public <T> Uni<T> invalidatingSnapshot(Uni<T> work) {
+        return work.onTermination().invoke(this::invalidateSnapshot);
+    }
+
+    /**
+     * Drop the pantry snapshot so the next read loads the collection again
+     */
+    private void invalidateSnapshot() {
+        synchronized (this) {
+            snapshotGeneration++;
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Hit and miss counters of the pantry snapshot
+     */
+    public PantrySnapshotStats getSnapshotStats() {
+        PantrySnapshot current = snapshot;
+        return new PantrySnapshotStats(snapshotHits.get(), snapshotMisses.get(), current != null,
+            current != null ? current.items().size() : 0);
     }
 
     /**
@@ -31,14 +120,19 @@ public class PantryService {
     //TODO Dodać walidację ale jako nie przez exception tylko prze uni, tj walidaca ma zwróicć true lub false i zwrócić uni z błędem
     public Uni<PantryItem> createPantryItem(PantryItem pantryItem) {
         pantryItem.prePersist();
-        return Panache.withTransaction(pantryItem::persist);
+        return transactions.withTransaction(() -> pantryItemRepository.persist(pantryItem))
+            .onItem().invoke(created -> ingredientSuggestions.record(List.of(created.name)))
+            .onTermination().invoke(this::invalidateSnapshot);
     }
 
     /**
-     * Get a pantry item by ID
+     * Get a pantry item by ID, served from the pantry snapshot as a copy callers may modify
      */
     public Uni<PantryItem> getPantryItemById(ObjectId id) {
-        return PantryItem.findById(id);
+        return getSnapshot().onItem().transform(current -> {
+            PantryItem item = current.byId().get(id);
+            return item != null ? item.copy() : null;
+        });
     }
 
     /**
@@ -47,50 +141,72 @@ public class PantryService {
     public Uni<PantryItem> updatePantryItem(ObjectId id, PantryItem updatedItem)
         throws ValidationException {
         validatePantryItem(updatedItem);
-        return Panache.withTransaction(() -> PantryItem.<PantryItem>findById(id)
+        // Set on every attempt, so a retried transaction keeps the name it last replaced
+        AtomicReference<String> previousName = new AtomicReference<>();
+        return transactions.withTransaction(() -> pantryItemRepository.findById(id)
             .onItem().ifNull().failWith(() -> new NotFoundException("Pantry item not found"))
             .onItem().transformToUni(existingItem -> {
+                previousName.set(existingItem.name);
                 existingItem.name = updatedItem.name;
                 existingItem.quantity = updatedItem.quantity;
                 existingItem.unit = updatedItem.unit;
                 existingItem.category = updatedItem.category;
                 existingItem.expiryDate = updatedItem.expiryDate;
                 existingItem.preUpdate();
-                return existingItem.update();
-            }));
-
+                return pantryItemRepository.update(existingItem);
+            }))
+            .onItem().invoke(updated -> ingredientSuggestions.update(
+                Collections.singletonList(previousName.get()), List.of(updated.name)))
+            .onTermination().invoke(this::invalidateSnapshot);
     }
 
     public Uni<Boolean> deletePantryItem(ObjectId id) {
-        return Panache.withTransaction(() -> PantryItem.<PantryItem>findById(id)
+        AtomicReference<String> deletedName = new AtomicReference<>();
+        return transactions.withTransaction(() -> pantryItemRepository.findById(id)
             .onItem().transformToUni(item -> {
                 if (item == null) {
                     return Uni.createFrom().item(false);
                 }
-                return item.delete()
+                deletedName.set(item.name);
+                return pantryItemRepository.delete(item)
                     .replaceWith(true);
-            }));
+            }))
+            .onItem().invoke(deleted -> {
+                if (deleted) {
+                    ingredientSuggestions.forget(Collections.singletonList(deletedName.get()));
+                }
+            })
+            .onTermination().invoke(this::invalidateSnapshot);
     }
 
     /**
-     * Search pantry items by name (case insensitive)
+     * Search pantry items by name (case insensitive), served from the pantry snapshot
+     * The input is matched literally, never as a pattern
      */
     public Uni<List<PantryItem>> searchPantryItemsByName(String name) {
-        return PantryItem.findByNameContaining(name);
+        String term = PantryItem.nameKey(name);
+        return getAllPantryItems().onItem().transform(items -> items.stream()
+            .filter(item -> item.name != null && PantryItem.nameKey(item.name).contains(term))
+            .toList());
     }
 
     /**
-     * Find pantry items by category
+     * Find pantry items by category, served from the pantry snapshot
      */
     public Uni<List<PantryItem>> findPantryItemsByCategory(String category) {
-        return PantryItem.findByCategory(category);
+        return getAllPantryItems().onItem().transform(items -> items.stream()
+            .filter(item -> Objects.equals(item.category, category))
+            .toList());
     }
 
     /**
-     * Get pantry items expiring soon
+     * Get pantry items expiring soon, served from the pantry snapshot
      */
     public Uni<List<PantryItem>> getItemsExpiringSoon(int days) {
-        return PantryItem.findExpiringSoon(days);
+        LocalDate futureDate = LocalDate.now().plusDays(days);
+        return getAllPantryItems().onItem().transform(items -> items.stream()
+            .filter(item -> item.expiryDate != null && !item.expiryDate.isAfter(futureDate))
+            .toList());
     }
 
     /**
@@ -98,45 +214,169 @@ public class PantryService {
      * Returns true if the item was found and quantity was reduced, false otherwise
      * Does NOT throw an exception if the item is not found - this allows meals to be completed
      * even when some ingredients are missing from the pantry
+     * Runs as a single atomic change guarded on the available quantity, so concurrent
+     * reductions never take the quantity below zero
      */
     public Uni<Boolean> reduceIngredientQuantity(String ingredientName, String unit,
         double quantity) {
-        return Panache.withTransaction(() -> {
-            return PantryItem.findByNameAndUnit(ingredientName, unit)
-                .onItem().transformToUni(item -> {
-                    // If item not found, just return false without throwing exception
-                    if (item == null) {
-                        return Uni.createFrom().item(false);
-                    }
-                    
-                    // Try to reduce quantity (will reduce as much as available, even if not enough)
-                    if (item.reduceQuantity(quantity)) {
-                        item.preUpdate();
-                        return item.update().replaceWith(true);
-                    }
-                    return Uni.createFrom().item(false);
-                });
-        });
+        PantryQuantityChange change = PantryQuantityChange.reduce(ingredientName, unit, quantity);
+        PantryQuantityChangeEvent event = new PantryQuantityChangeEvent(ingredientName, unit, -quantity);
+        return event.timing(pantryItemRepository.applyQuantityChange(change)
+                .onTermination().invoke(this::invalidateSnapshot),
+            item -> event.pantryItemId = item != null ? item.id.toHexString() : null)
+            .onItem().transform(Objects::nonNull);
     }
 
     /**
      * Increase quantity of a pantry item Used when adding items from shopping lists
+     * Creates the pantry item if it doesn't exist yet
      */
-    public Uni<Boolean> increaseIngredientQuantity(String ingredientName, String unit,
+    public Uni<PantryItem> increaseIngredientQuantity(String ingredientName, String unit,
         double quantity) {
-        return Panache.withTransaction(() -> {
-            return PantryItem.findByNameAndUnit(ingredientName, unit)
-                .onItem()
-                .transformToUni(item -> {
-                    if (item == null) {
-                        return Uni.createFrom().item(false);
+        return increaseIngredientQuantity(ingredientName, unit, quantity, null);
+    }
+
+    /**
+     * Increase quantity of a pantry item, creating it with the given category if it doesn't exist
+     * Runs as a single atomic upsert adding to the base quantity, so concurrent increases are never lost
+     */
+    public Uni<PantryItem> increaseIngredientQuantity(String ingredientName, String unit,
+        double quantity, String category) {
+        PantryQuantityChange change = PantryQuantityChange.increase(ingredientName, unit, quantity,
+            category);
+        PantryQuantityChangeEvent event = new PantryQuantityChangeEvent(ingredientName, unit, quantity);
+        return event.timing(pantryItemRepository.applyQuantityChange(change)
+                .onItem().invoke(item -> {
+                    // An upserted item takes both timestamps from the same write
+                    if (item.createdAt != null && item.createdAt.equals(item.updatedAt)) {
+                        ingredientSuggestions.record(List.of(item.name));
+                    }
+                })
+                .onTermination().invoke(this::invalidateSnapshot),
+            item -> event.pantryItemId = item != null ? item.id.toHexString() : null);
+    }
+
+    /**
+     * Apply many quantity changes in one batch
+     * Changes for the same name and unit dimension are merged first; increases upsert missing
+     * items and reductions only apply when enough quantity is available
+     */
+    public Uni<Void> applyQuantityChanges(List<PantryQuantityChange> changes) {
+        return applyQuantityChanges(null, changes);
+    }
+
+    /**
+     * Apply many quantity changes in one batch inside the given session's transaction
+     * (no session when null)
+     * Names of the items the batch creates are recorded for suggestions as soon as it applies,
+     * so an aborted transaction can leave them counted until the next startup rebuild
+     */
+    public Uni<Void> applyQuantityChanges(ClientSession session, List<PantryQuantityChange> changes) {
+        List<PantryQuantityChange> mergedChanges = mergeQuantityChanges(changes);
+        if (mergedChanges.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+
+        return pantryItemRepository.applyQuantityChanges(session, mergedChanges)
+            .onItem().invoke(created -> ingredientSuggestions.record(
+                created.stream().map(PantryQuantityChange::name).toList()))
+            .onTermination().invoke(this::invalidateSnapshot)
+            .replaceWithVoid();
+    }
+
+    /**
+     * Reduce pantry quantities for many ingredients with one read and one batch write
+     * Only reductions fully covered by the pantry are applied; the result holds one flag per
+     * reduction, in order, telling whether it was applied
+     */
+    public Uni<List<Boolean>> reduceAvailableQuantities(ClientSession session,
+        List<PantryQuantityChange> reductions) {
+        if (reductions.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+
+        return pantryItemRepository.findMatching(session, reductions)
+            .onItem().transformToUni(pantryItems -> {
+                Map<String, Long> available = new HashMap<>();
+                for (PantryItem pantryItem : pantryItems) {
+                    available.merge(PantryAvailability.key(pantryItem.name, pantryItem.unit),
+                        pantryItem.baseQuantityOrCompute(), Math::max);
+                }
+
+                List<Boolean> applied = new ArrayList<>(reductions.size());
+                List<PantryQuantityChange> coveredReductions = new ArrayList<>();
+                for (PantryQuantityChange reduction : reductions) {
+                    String key = PantryAvailability.key(reduction.name(), reduction.unit());
+                    long required = -reduction.baseDelta();
+                    Long quantity = available.get(key);
+                    if (quantity != null && quantity >= required) {
+                        available.put(key, quantity - required);
+                        coveredReductions.add(reduction);
+                        applied.add(true);
+                    } else {
+                        applied.add(false);
                     }
-                    item.increaseQuantity(quantity);
-                    item.preUpdate();
-                    return item.update().replaceWith(true);
-                });
+                }
 
-        });
+                return applyQuantityChanges(session, coveredReductions).replaceWith(applied);
+            });
+    }
+
+    /**
+     * Current pantry snapshot, loading the collection on a miss or once it is older than the TTL
+     */
+    private Uni<PantrySnapshot> getSnapshot() {
+        PantrySnapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt() < snapshotTtl.toNanos()) {
+            snapshotHits.incrementAndGet();
+            return Uni.createFrom().item(current);
+        }
+
+        snapshotMisses.incrementAndGet();
+        long generation;
+        synchronized (this) {
+            generation = snapshotGeneration;
+        }
+        return pantryItemRepository.findAllOrderedByCreatedAt()
+            .onItem().transform(items -> {
+                PantrySnapshot loaded = PantrySnapshot.of(items);
+                synchronized (this) {
+                    if (generation == snapshotGeneration) {
+                        snapshot = loaded;
+                    }
+                }
+                return loaded;
+            });
+    }
+
+    /**
+     * Sum deltas of changes targeting the same pantry item and drop changes that cancel out
+     * Deltas are summed as base quantities, so 500 g and 1 kg of the same ingredient merge;
+     * the merged change keeps the unit of the first change
+     */
+    private List<PantryQuantityChange> mergeQuantityChanges(List<PantryQuantityChange> changes) {
+        Map<String, PantryQuantityChange> firstChanges = new LinkedHashMap<>();
+        Map<String, Long> baseDeltas = new HashMap<>();
+        for (PantryQuantityChange change : changes) {
+            String key = PantryAvailability.key(change.name(), change.unit());
+            firstChanges.merge(key, change,
+                (existing, added) -> existing.category() != null || added.category() == null
+                    ? existing
+                    : new PantryQuantityChange(existing.name(), existing.unit(), existing.delta(),
+                        added.category()));
+            baseDeltas.merge(key, change.baseDelta(), Long::sum);
+        }
+
+        List<PantryQuantityChange> result = new ArrayList<>(firstChanges.size());
+        for (Map.Entry<String, PantryQuantityChange> entry : firstChanges.entrySet()) {
+            long baseDelta = baseDeltas.get(entry.getKey());
+            if (baseDelta != 0) {
+                PantryQuantityChange first = entry.getValue();
+                result.add(new PantryQuantityChange(first.name(), first.unit(),
+                    Unit.fromBase(baseDelta, first.unit()), first.category()));
+            }
+        }
+        return result;
     }
 
     /**
@@ -155,4 +395,21 @@ public class PantryService {
             throw new ValidationException("Unit is required");
         }
     }
+
+    /**
+     * Immutable pantry state: items newest first, indexed by ID and by name and unit, with the
+     * System.nanoTime() it was loaded at
+     */
+    private record PantrySnapshot(List<PantryItem> items, Map<ObjectId, PantryItem> byId,
+                                  PantryAvailability availability, long loadedAt) {
+
+        static PantrySnapshot of(List<PantryItem> items) {
+            Map<ObjectId, PantryItem> byId = new HashMap<>();
+            for (PantryItem item : items) {
+                byId.put(item.id, item);
+            }
+            return new PantrySnapshot(List.copyOf(items), Map.copyOf(byId),
+                PantryAvailability.of(items), System.nanoTime());
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package org.household.pantry;
+
+/**
+ * Counters of the in-memory pantry snapshot served by PantryService
+ */
+public record PantrySnapshotStats(long hits, long misses, boolean loaded, int size) {
+}
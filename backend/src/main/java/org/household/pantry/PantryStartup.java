@@ -0,0 +1,245 @@
+package org.household.pantry;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.conversions.Bson;
+import org.household.common.DataStore;
+import org.household.common.Transactions;
+import org.household.units.Unit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Prepares the pantryitems collection at startup
+ * Backfills the match keys and base quantities for items written before they were persisted,
+ * merges items that share a name and unit dimension and creates the unique compound index on
+ * the keys
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+@Slf4j
+public class PantryStartup {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private static final String MATCH_KEY_INDEX = "match_key";
+
+    /**
+     * Server error codes for an index that exists under the same name with other options or keys
+     */
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final int INDEX_KEY_SPECS_CONFLICT = 86;
+
+    @Inject
+    Transactions transactions;
+
+    /**
+     * Failing to backfill or merge is logged and the index is still attempted; failing to create
+     * the unique index fails startup, since pantry upserts rely on it to keep one item per name
+     * and unit dimension
+     */
+    void onStart(@Observes StartupEvent event) {
+        backfillMatchKeys()
+                .onItem().transformToUni(ignored -> mergeDuplicates())
+                .onFailure().invoke(e -> log.error("Failed to prepare pantry collection", e))
+                .onFailure().recoverWithNull()
+                .onItem().transformToUni(ignored -> createIndexes())
+                .await().indefinitely();
+    }
+
+    /**
+     * Create the unique match key index
+     * An index left under the same name by an earlier version, for example a non-unique one
+     * created while duplicates existed, is dropped and created again
+     */
+    private Uni<String> createIndexes() {
+        return createMatchKeyIndex()
+                .onFailure(PantryStartup::isIndexConflict).recoverWithUni(e -> {
+                    log.info("Recreating the pantry match key index with the current options");
+                    return PantryItem.<PantryItem>mongoCollection().dropIndex(MATCH_KEY_INDEX)
+                            .onItem().transformToUni(ignored -> createMatchKeyIndex());
+                });
+    }
+
+    private Uni<String> createMatchKeyIndex() {
+        return PantryItem.<PantryItem>mongoCollection()
+                .createIndex(Indexes.ascending(PantryItem.NAME_KEY_FIELD, PantryItem.UNIT_KEY_FIELD),
+                        new IndexOptions().name(MATCH_KEY_INDEX).unique(true));
+    }
+
+    private static boolean isIndexConflict(Throwable failure) {
+        return failure instanceof MongoCommandException commandException
+                && (commandException.getErrorCode() == INDEX_OPTIONS_CONFLICT
+                || commandException.getErrorCode() == INDEX_KEY_SPECS_CONFLICT);
+    }
+
+    /**
+     * Merge pantry items that share a name and unit dimension into the oldest of them
+     * Keys are computed from each item's name and unit rather than read from the stored keys,
+     * which a unique index may have kept from being backfilled. The merged item holds the sum of
+     * the base quantities in its own unit and the earliest expiry date; the others are deleted
+     * before the merged item takes the shared key, in one transaction so a failure part way
+     * through can't lose their quantities
+     */
+    private Uni<Void> mergeDuplicates() {
+        return PantryItem.<PantryItem>mongoCollection()
+                .find()
+                .collect().asList()
+                .onItem().transformToUni(items -> {
+                    Map<String, List<PantryItem>> itemsByKey = new LinkedHashMap<>();
+                    for (PantryItem item : items) {
+                        if (item.name != null && item.unit != null) {
+                            itemsByKey.computeIfAbsent(PantryAvailability.key(item.name, item.unit),
+                                    ignored -> new ArrayList<>()).add(item);
+                        }
+                    }
+
+                    LocalDateTime now = LocalDateTime.now();
+                    List<WriteModel<PantryItem>> writes = new ArrayList<>();
+                    int merged = 0;
+                    for (List<PantryItem> group : itemsByKey.values()) {
+                        if (group.size() > 1) {
+                            merged += group.size() - 1;
+                            addMergeWrites(group, now, writes);
+                        }
+                    }
+                    if (writes.isEmpty()) {
+                        return Uni.createFrom().voidItem();
+                    }
+
+                    int mergedItems = merged;
+                    return transactions.withTransaction((ClientSession session) ->
+                                    PantryItem.<PantryItem>mongoCollection()
+                                            .bulkWrite(session, writes, new BulkWriteOptions().ordered(true)))
+                            .onItem().invoke(ignored -> log.info(
+                                    "Merged {} duplicate pantry items into the items sharing their name and unit",
+                                    mergedItems))
+                            .replaceWithVoid();
+                });
+    }
+
+    /**
+     * Deletes of all but the oldest item of a group, then the update of the oldest one
+     */
+    private static void addMergeWrites(List<PantryItem> group, LocalDateTime now,
+                                       List<WriteModel<PantryItem>> writes) {
+        group.sort(Comparator.comparing((PantryItem item) -> item.createdAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(item -> item.id));
+        PantryItem keeper = group.get(0);
+
+        long baseQuantity = 0;
+        LocalDate expiryDate = null;
+        for (PantryItem item : group) {
+            baseQuantity += item.baseQuantityOrCompute();
+            if (item.expiryDate != null && (expiryDate == null || item.expiryDate.isBefore(expiryDate))) {
+                expiryDate = item.expiryDate;
+            }
+            if (item != keeper) {
+                writes.add(new DeleteOneModel<>(Filters.eq("_id", item.id)));
+            }
+        }
+
+        keeper.updateMatchKeys();
+        keeper.unitFactor = Unit.factorOf(keeper.unit);
+        keeper.baseQuantity = baseQuantity;
+        keeper.quantity = (double) baseQuantity / keeper.unitFactor;
+        writes.add(new UpdateOneModel<>(Filters.eq("_id", keeper.id), Updates.combine(
+                Updates.set(PantryItem.NAME_KEY_FIELD, keeper.nameKey),
+                Updates.set(PantryItem.UNIT_KEY_FIELD, keeper.unitKey),
+                Updates.set(PantryItem.UNIT_FACTOR_FIELD, keeper.unitFactor),
+                Updates.set(PantryItem.BASE_QUANTITY_FIELD, keeper.baseQuantity),
+                Updates.set("quantity", keeper.quantity),
+                Updates.set("expiryDate", expiryDate),
+                Updates.set("updatedAt", now))));
+    }
+
+    /**
+     * Compute match keys and base quantities for items that don't have them, writing them back
+     * in batches
+     */
+    private Uni<Void> backfillMatchKeys() {
+        Bson missingKeys = Filters.or(
+                Filters.exists(PantryItem.NAME_KEY_FIELD, false),
+                Filters.exists(PantryItem.UNIT_KEY_FIELD, false),
+                Filters.exists(PantryItem.BASE_QUANTITY_FIELD, false));
+
+        return PantryItem.<PantryItem>mongoCollection()
+                .find(missingKeys)
+                .group().intoLists().of(BACKFILL_BATCH_SIZE)
+                .onItem().transformToUniAndConcatenate(this::writeMatchKeys)
+                .collect().with(Collectors.summingInt(Integer::intValue))
+                .onItem().invoke(count -> {
+                    if (count > 0) {
+                        log.info("Backfilled match keys for {} pantry items", count);
+                    }
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * Base quantities never conflict and are written first; unit keys are written separately,
+     * because items stored under different units of one dimension (kg and g) now share a key
+     * and only one of them can take it under the unique index
+     */
+    private Uni<Integer> writeMatchKeys(List<PantryItem> items) {
+        List<WriteModel<PantryItem>> quantityWrites = new ArrayList<>(items.size());
+        List<WriteModel<PantryItem>> keyWrites = new ArrayList<>(items.size());
+        for (PantryItem item : items) {
+            String previousNameKey = item.nameKey;
+            String previousUnitKey = item.unitKey;
+            item.updateMatchKeys();
+            item.updateBaseQuantity();
+            quantityWrites.add(new UpdateOneModel<>(Filters.eq("_id", item.id), Updates.combine(
+                    Updates.set(PantryItem.BASE_QUANTITY_FIELD, item.baseQuantity),
+                    Updates.set(PantryItem.UNIT_FACTOR_FIELD, item.unitFactor))));
+            if (!Objects.equals(previousNameKey, item.nameKey) || !Objects.equals(previousUnitKey, item.unitKey)) {
+                keyWrites.add(new UpdateOneModel<>(Filters.eq("_id", item.id), Updates.combine(
+                        Updates.set(PantryItem.NAME_KEY_FIELD, item.nameKey),
+                        Updates.set(PantryItem.UNIT_KEY_FIELD, item.unitKey))));
+            }
+        }
+
+        BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+        Uni<Void> keys = keyWrites.isEmpty()
+                ? Uni.createFrom().voidItem()
+                : PantryItem.<PantryItem>mongoCollection()
+                        .bulkWrite(keyWrites, options)
+                        .onFailure(MongoBulkWriteException.class).recoverWithItem(e -> {
+                            log.warn("{} pantry items share a name and unit dimension with another item and keep "
+                                    + "their previous match key until they are merged",
+                                    ((MongoBulkWriteException) e).getWriteErrors().size());
+                            return null;
+                        })
+                        .replaceWithVoid();
+
+        return PantryItem.<PantryItem>mongoCollection()
+                .bulkWrite(quantityWrites, options)
+                .onItem().transformToUni(ignored -> keys)
+                .replaceWith(items.size());
+    }
+}
@@ -0,0 +1,11 @@
+package org.household.recipe;
+
+import java.util.List;
+
+/**
+ * A recipe with how much of it the pantry covers
+ * Coverage is the share of distinct ingredients available in the required quantity
+ */
+public record CookableRecipe(Recipe recipe, int availableIngredients, int totalIngredients,
+                             double coverage, List<String> missingIngredients) {
+}
@@ -0,0 +1,338 @@
+package org.household.recipe;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.types.ObjectId;
+import org.household.common.PageRequest;
+import org.household.pantry.PantryAvailability;
+import org.household.units.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Ranks recipes by how much of them the pantry covers
+ * Every ingredient name and unit gets a dense integer ID and every recipe keeps its ingredient
+ * set as a bitset, so a first coverage estimate for all recipes is a word-level AND and popcount
+ * against the pantry bitset. Only the best candidates are then checked against pantry quantities
+ * Ingredient IDs are reference counted by the recipes using them and reused once no recipe
+ * does, so the bitsets stay as short as the set of ingredients currently in use
+ * Kept in sync by RecipeService writes and rebuilt from the collection at startup; recipes are
+ * copied in and out, so callers never share an instance with the index
+ */
+@ApplicationScoped
+public class CookableRecipeIndex {
+
+    /**
+     * Candidates checked against quantities per requested result
+     */
+    static final int CANDIDATE_FACTOR = 4;
+
+    /**
+     * Most results a single ranking returns, whatever the requested limit
+     */
+    static final int MAX_RESULTS = PageRequest.MAX_LIMIT;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+
+    /**
+     * Ingredient key by ID, null for free IDs
+     */
+    private final List<String> ingredientKeys = new ArrayList<>();
+
+    /**
+     * Number of indexed recipes using each ingredient ID
+     */
+    private int[] useCounts = new int[0];
+
+    /**
+     * Free IDs below the highest assigned one, lowest reused first
+     */
+    private final NavigableSet<Integer> freeIds = new TreeSet<>();
+
+    private final Map<ObjectId, RecipeBits> recipes = new HashMap<>();
+
+    /**
+     * Replace the whole index with the given recipes
+     */
+    public void rebuild(Collection<Recipe> allRecipes) {
+        lock.writeLock().lock();
+        try {
+            ingredientIds.clear();
+            ingredientKeys.clear();
+            useCounts = new int[0];
+            freeIds.clear();
+            recipes.clear();
+            for (Recipe recipe : allRecipes) {
+                add(recipe);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a recipe or replace its previous version
+     */
+    public void put(Recipe recipe) {
+        lock.writeLock().lock();
+        try {
+            remove(recipe.id);
+            add(recipe);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a recipe from the index, releasing the ingredient IDs no other recipe uses
+     */
+    public void delete(ObjectId id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rank recipes by pantry coverage, best first, at most limit (and at most MAX_RESULTS) results
+     *
+     * @param servings servings to cook, or null to use each recipe's own servings
+     */
+    public List<CookableRecipe> rank(PantryAvailability pantry, Integer servings, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] pantryBits = new long[words(ingredientKeys.size())];
+            for (String key : pantry.keys()) {
+                Integer ingredientId = ingredientIds.get(key);
+                if (ingredientId != null) {
+                    pantryBits[ingredientId >>> 6] |= 1L << ingredientId;
+                }
+            }
+
+            // Keep the best candidates by ingredient presence, ignoring quantities
+            int maxResults = Math.min(limit, MAX_RESULTS);
+            int candidateCount = maxResults * CANDIDATE_FACTOR;
+            Comparator<Candidate> byPresence = Comparator.comparingDouble(Candidate::presence)
+                    .thenComparingInt(Candidate::present);
+            PriorityQueue<Candidate> candidates = new PriorityQueue<>(candidateCount + 1, byPresence);
+            for (RecipeBits recipeBits : recipes.values()) {
+                candidates.add(new Candidate(recipeBits, recipeBits.presentIn(pantryBits)));
+                if (candidates.size() > candidateCount) {
+                    candidates.poll();
+                }
+            }
+
+            // Exact quantity check on the candidates only
+            List<CookableRecipe> ranked = new ArrayList<>(candidates.size());
+            for (Candidate candidate : candidates) {
+                ranked.add(checkQuantities(candidate.recipeBits().recipe(), pantry, servings));
+            }
+            ranked.sort(Comparator.comparingDouble(CookableRecipe::coverage).reversed()
+                    .thenComparing(Comparator.comparingInt(CookableRecipe::availableIngredients).reversed()));
+            return ranked.size() > maxResults ? List.copyOf(ranked.subList(0, maxResults)) : ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed recipes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recipes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Highest assigned ingredient ID plus one, the length in bits of the pantry bitset
+     */
+    int ingredientIdSpan() {
+        lock.readLock().lock();
+        try {
+            return ingredientKeys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CookableRecipe checkQuantities(Recipe recipe, PantryAvailability pantry, Integer servings) {
+        double scale = servings != null && recipe.servings != null && recipe.servings > 0
+                ? (double) servings / recipe.servings
+                : 1.0;
+
+        // Sum the required base quantity of ingredients listed more than once, possibly in different units
+        Map<String, Recipe.Ingredient> firstByKey = new LinkedHashMap<>();
+        Map<String, Long> required = new HashMap<>();
+        for (Recipe.Ingredient ingredient : recipe.ingredients) {
+            if (ingredient.name == null || ingredient.unit == null) {
+                continue;
+            }
+            String key = PantryAvailability.key(ingredient.name, ingredient.unit);
+            firstByKey.putIfAbsent(key, ingredient);
+            long baseQuantity = ingredient.quantity != null
+                    ? Unit.toBase(ingredient.quantity * scale, ingredient.unit)
+                    : 0L;
+            required.merge(key, baseQuantity, Long::sum);
+        }
+
+        List<String> missingIngredients = new ArrayList<>();
+        for (Map.Entry<String, Recipe.Ingredient> entry : firstByKey.entrySet()) {
+            if (!pantry.hasBaseQuantity(entry.getKey(), required.get(entry.getKey()))) {
+                missingIngredients.add(entry.getValue().name);
+            }
+        }
+
+        int total = firstByKey.size();
+        int available = total - missingIngredients.size();
+        return new CookableRecipe(recipe.copy(), available, total,
+                total > 0 ? (double) available / total : 0.0, missingIngredients);
+    }
+
+    private void add(Recipe recipe) {
+        if (recipe.id == null) {
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        int maxId = -1;
+        if (recipe.ingredients != null) {
+            for (Recipe.Ingredient ingredient : recipe.ingredients) {
+                if (ingredient.name == null || ingredient.unit == null) {
+                    continue;
+                }
+                int ingredientId = assignId(PantryAvailability.key(ingredient.name, ingredient.unit));
+                ids.add(ingredientId);
+                maxId = Math.max(maxId, ingredientId);
+            }
+        }
+
+        long[] bits = new long[words(maxId + 1)];
+        for (int ingredientId : ids) {
+            bits[ingredientId >>> 6] |= 1L << ingredientId;
+        }
+        // Count every distinct ID once per recipe, an ingredient may be listed twice
+        forEachId(bits, ingredientId -> useCounts[ingredientId]++);
+        recipes.put(recipe.id, new RecipeBits(recipe.copy(), bits));
+    }
+
+    private void remove(ObjectId id) {
+        RecipeBits previous = recipes.remove(id);
+        if (previous != null) {
+            forEachId(previous.bits(), this::releaseId);
+        }
+    }
+
+    /**
+     * ID of an ingredient key, assigning the lowest free ID to a new key
+     */
+    private int assignId(String key) {
+        Integer existing = ingredientIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        int ingredientId;
+        if (freeIds.isEmpty()) {
+            ingredientId = ingredientKeys.size();
+            ingredientKeys.add(key);
+            if (useCounts.length <= ingredientId) {
+                useCounts = Arrays.copyOf(useCounts, Math.max(64, useCounts.length * 2));
+            }
+        } else {
+            ingredientId = freeIds.pollFirst();
+            ingredientKeys.set(ingredientId, key);
+        }
+        ingredientIds.put(key, ingredientId);
+        return ingredientId;
+    }
+
+    /**
+     * Drop one use of an ingredient ID, freeing it when no recipe uses it anymore
+     * Free IDs at the end are dropped so the pantry bitset shrinks with them
+     */
+    private void releaseId(int ingredientId) {
+        if (--useCounts[ingredientId] > 0) {
+            return;
+        }
+
+        ingredientIds.remove(ingredientKeys.get(ingredientId));
+        ingredientKeys.set(ingredientId, null);
+        freeIds.add(ingredientId);
+        while (!ingredientKeys.isEmpty() && ingredientKeys.get(ingredientKeys.size() - 1) == null) {
+            freeIds.remove(ingredientKeys.size() - 1);
+            ingredientKeys.remove(ingredientKeys.size() - 1);
+        }
+    }
+
+    private static void forEachId(long[] bits, IntConsumer action) {
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                action.accept((word << 6) + Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+    }
+
+    private static int words(int bitCount) {
+        return (bitCount + 63) >>> 6;
+    }
+
+    /**
+     * A recipe with its ingredient bitset; the bitset only spans the highest ID it uses
+     */
+    private record RecipeBits(Recipe recipe, long[] bits, int ingredientCount) {
+
+        RecipeBits(Recipe recipe, long[] bits) {
+            this(recipe, bits, bitCount(bits));
+        }
+
+        int presentIn(long[] pantryBits) {
+            int present = 0;
+            int words = Math.min(bits.length, pantryBits.length);
+            for (int i = 0; i < words; i++) {
+                present += Long.bitCount(bits[i] & pantryBits[i]);
+            }
+            return present;
+        }
+
+        private static int bitCount(long[] bits) {
+            int count = 0;
+            for (long word : bits) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+
+    private record Candidate(RecipeBits recipeBits, int present) {
+
+        double presence() {
+            return recipeBits.ingredientCount() > 0 ? (double) present / recipeBits.ingredientCount() : 0.0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.household.recipe;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.InMemoryCollection;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.common.SearchPatterns;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recipes kept in memory, for load testing without MongoDB
+ * Word search matches whole lowercased words of the name, without the stemming of the text index
+ */
+@ApplicationScoped
+@IfBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY)
+public class InMemoryRecipeRepository implements RecipeRepository {
+
+    private final InMemoryCollection<Recipe> recipes = new InMemoryCollection<>(Recipe.class);
+
+    @Override
+    public Uni<List<Recipe>> findAllOrderedByCreatedAt() {
+        return Uni.createFrom().item(() -> recipes.find(recipe -> true, newestFirst()));
+    }
+
+    @Override
+    public Uni<Page<Recipe>> findPage(PageRequest request) {
+        return Uni.createFrom().item(() -> recipes.findPage(request, recipe -> recipe.createdAt));
+    }
+
+    @Override
+    public Uni<Recipe> findById(ObjectId id) {
+        return Uni.createFrom().item(() -> recipes.findById(id));
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByIds(Collection<ObjectId> ids) {
+        return Uni.createFrom().item(() -> recipes.findByIds(ids));
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByTag(String tag) {
+        return Uni.createFrom().item(() -> recipes.find(
+                recipe -> recipe.tags != null && recipe.tags.contains(tag), null));
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByNameText(String name) {
+        Set<String> terms = new HashSet<>(RecipeSearchIndex.tokenize(name));
+        return Uni.createFrom().item(() -> {
+            Map<ObjectId, Integer> scores = new HashMap<>();
+            List<Recipe> matches = recipes.find(recipe -> {
+                int score = 0;
+                for (String word : RecipeSearchIndex.tokenize(recipe.name)) {
+                    if (terms.contains(word)) {
+                        score++;
+                    }
+                }
+                scores.put(recipe.id, score);
+                return score > 0;
+            }, null);
+            matches.sort(Comparator.comparing((Recipe recipe) -> scores.get(recipe.id)).reversed());
+            return limit(matches);
+        });
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByNamePrefix(String name) {
+        String text = SearchPatterns.normalize(name);
+        return Uni.createFrom().item(() -> limit(recipes.find(
+                recipe -> recipe.nameKey != null && recipe.nameKey.startsWith(text),
+                Comparator.comparing(recipe -> recipe.nameKey))));
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByNameContaining(String name) {
+        String text = SearchPatterns.normalize(name);
+        return Uni.createFrom().item(() -> limit(recipes.find(
+                recipe -> recipe.nameKey != null && recipe.nameKey.contains(text),
+                Comparator.comparing(recipe -> recipe.nameKey))));
+    }
+
+    @Override
+    public Uni<Recipe> persist(Recipe recipe) {
+        return Uni.createFrom().item(() -> recipes.insert(recipe));
+    }
+
+    @Override
+    public Uni<Recipe> update(Recipe recipe) {
+        return Uni.createFrom().item(() -> recipes.replace(recipe));
+    }
+
+    @Override
+    public Uni<Void> delete(Recipe recipe) {
+        return Uni.createFrom().item(() -> recipes.delete(recipe.id)).replaceWithVoid();
+    }
+
+    private static Comparator<Recipe> newestFirst() {
+        return Comparator.comparing((Recipe recipe) -> recipe.createdAt,
+                Comparator.nullsFirst(Comparator.naturalOrder())).reversed();
+    }
+
+    private static List<Recipe> limit(List<Recipe> matches) {
+        return matches.size() > Recipe.SEARCH_LIMIT ? matches.subList(0, Recipe.SEARCH_LIMIT) : matches;
+    }
+}
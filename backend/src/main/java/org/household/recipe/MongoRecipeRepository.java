@@ -0,0 +1,78 @@
+package org.household.recipe;
+
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.KeysetPagination;
+import org.household.common.Page;
+import org.household.common.PageCursor;
+import org.household.common.PageRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Recipes in MongoDB, through the Panache entity
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+public class MongoRecipeRepository implements RecipeRepository {
+
+    @Override
+    public Uni<List<Recipe>> findAllOrderedByCreatedAt() {
+        return Recipe.findAllOrderedByCreatedAt();
+    }
+
+    @Override
+    public Uni<Page<Recipe>> findPage(PageRequest request) {
+        return KeysetPagination.find(Recipe.mongoCollection(), request,
+                recipe -> new PageCursor(recipe.createdAt, recipe.id));
+    }
+
+    @Override
+    public Uni<Recipe> findById(ObjectId id) {
+        return Recipe.findById(id);
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByIds(Collection<ObjectId> ids) {
+        return Recipe.findByIds(ids);
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByTag(String tag) {
+        return Recipe.findByTag(tag);
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByNameText(String name) {
+        return Recipe.findByNameText(name);
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByNamePrefix(String name) {
+        return Recipe.findByNamePrefix(name);
+    }
+
+    @Override
+    public Uni<List<Recipe>> findByNameContaining(String name) {
+        return Recipe.findByNameContaining(name);
+    }
+
+    @Override
+    public Uni<Recipe> persist(Recipe recipe) {
+        return recipe.persist();
+    }
+
+    @Override
+    public Uni<Recipe> update(Recipe recipe) {
+        return recipe.update();
+    }
+
+    @Override
+    public Uni<Void> delete(Recipe recipe) {
+        return recipe.delete();
+    }
+}
@@ -1,5 +1,9 @@
 package org.household.recipe;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOptions;
+import com.mongodb.client.model.Sorts;
 import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoEntity;
 import io.quarkus.mongodb.panache.common.MongoEntity;
 import io.quarkus.panache.common.Sort;
@@ -7,10 +11,13 @@ import io.smallrye.mutiny.Uni;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import org.bson.types.ObjectId;
+import org.household.common.SearchPatterns;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Recipe entity representing a cooking recipe
@@ -19,6 +26,19 @@ import java.util.List;
 @MongoEntity(collection = "recipes")
 public class Recipe extends ReactivePanacheMongoEntity {
 
+    public static final String NAME_KEY_FIELD = "nameKey";
+
+    /**
+     * Top-level fields a page request may select
+     */
+    public static final Set<String> PAGE_FIELDS = Set.of("id", "name", "description", "ingredients", "instructions", "prepTime", "cookTime",
+            "servings", "imageUrl", "tags", "createdAt", "updatedAt");
+
+    /**
+     * Maximum number of recipes returned by each name search query
+     */
+    public static final int SEARCH_LIMIT = 100;
+
     @NotBlank(message = "Recipe name must be at least 2 characters")
     @Size(min = 2, message = "Recipe name must be at least 2 characters")
     public String name;
@@ -49,6 +69,12 @@ public class Recipe extends ReactivePanacheMongoEntity {
 
     public LocalDateTime updatedAt;
 
+    /**
+     * Trimmed, lowercased name backing the indexed name search
+     */
+    @JsonIgnore
+    public String nameKey;
+
     /**
      * Lifecycle method called before persisting
      */
@@ -58,6 +84,7 @@ public class Recipe extends ReactivePanacheMongoEntity {
             createdAt = now;
         }
         updatedAt = now;
+        updateNameKey();
     }
 
     /**
@@ -65,13 +92,88 @@ public class Recipe extends ReactivePanacheMongoEntity {
      */
     public void preUpdate() {
         updatedAt = LocalDateTime.now();
+        updateNameKey();
+    }
+
+    /**
+     * Recompute the name key from the current name
+     */
+    public void updateNameKey() {
+        nameKey = name != null ? SearchPatterns.normalize(name) : null;
+    }
+
+    /**
+     * Copy of this recipe with its own ingredient, instruction and tag lists
+     */
+    public Recipe copy() {
+        Recipe copy = new Recipe();
+        copy.id = id;
+        copy.name = name;
+        copy.description = description;
+        if (ingredients != null) {
+            copy.ingredients = new ArrayList<>(ingredients.size());
+            for (Ingredient ingredient : ingredients) {
+                copy.ingredients.add(ingredient.copy());
+            }
+        } else {
+            copy.ingredients = null;
+        }
+        copy.instructions = instructions != null ? new ArrayList<>(instructions) : null;
+        copy.prepTime = prepTime;
+        copy.cookTime = cookTime;
+        copy.servings = servings;
+        copy.imageUrl = imageUrl;
+        copy.tags = tags != null ? new ArrayList<>(tags) : null;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.nameKey = nameKey;
+        return copy;
     }
 
     /**
-     * Find recipes by name containing the given text (case insensitive)
+     * Find recipes whose name contains the words of the given text, using the text index
+     * Best matches first; quotes and minus signs in the text are not treated as operators
+     */
+    public static Uni<List<Recipe>> findByNameText(String name) {
+        String terms = SearchPatterns.textTerms(name);
+        if (terms.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return Recipe.<Recipe>mongoCollection()
+                .find(Filters.text(terms),
+                        new FindOptions().sort(Sorts.metaTextScore("score")).limit(SEARCH_LIMIT))
+                .collect().asList();
+    }
+
+    /**
+     * Find recipes whose name starts with the given text (case insensitive), ordered by name key
+     * The anchored literal prefix is a bounded range scan of the name key index
+     */
+    public static Uni<List<Recipe>> findByNamePrefix(String name) {
+        return Recipe.<Recipe>mongoCollection()
+                .find(Filters.regex(NAME_KEY_FIELD, SearchPatterns.prefix(name)),
+                        new FindOptions().sort(Sorts.ascending(NAME_KEY_FIELD)).limit(SEARCH_LIMIT))
+                .collect().asList();
+    }
+
+    /**
+     * Find recipes by name containing the given text (case insensitive), ordered by name key
+     * The text is matched literally against the name key; the unanchored regex is evaluated on
+     * every key of the name key index, so this is only a fallback for when the prefix and text
+     * searches find nothing
      */
     public static Uni<List<Recipe>> findByNameContaining(String name) {
-        return find("name like ?1", "(?i).*" + name + ".*").list();
+        return Recipe.<Recipe>mongoCollection()
+                .find(Filters.regex(NAME_KEY_FIELD, SearchPatterns.contains(name)),
+                        new FindOptions().sort(Sorts.ascending(NAME_KEY_FIELD)).limit(SEARCH_LIMIT))
+                .collect().asList();
+    }
+
+    /**
+     * Find all recipes with the given IDs using a single $in query
+     */
+    public static Uni<List<Recipe>> findByIds(Collection<ObjectId> ids) {
+        return find("_id in ?1", ids).list();
     }
 
     /**
@@ -121,5 +223,14 @@ public class Recipe extends ReactivePanacheMongoEntity {
             this(name, quantity, unit);
             this.category = category;
         }
+
+        /**
+         * Copy of this ingredient with the same ID
+         */
+        public Ingredient copy() {
+            Ingredient copy = new Ingredient(name, quantity, unit, category);
+            copy._id = _id;
+            return copy;
+        }
     }
 }
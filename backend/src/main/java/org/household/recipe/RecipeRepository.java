@@ -0,0 +1,58 @@
+package org.household.recipe;
+
+import io.smallrye.mutiny.Uni;
+import org.bson.types.ObjectId;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data access for recipes, backed by MongoDB or kept in memory depending on {@link org.household.common.DataStore}
+ */
+public interface RecipeRepository {
+
+    /**
+     * All recipes ordered by creation date (newest first)
+     */
+    Uni<List<Recipe>> findAllOrderedByCreatedAt();
+
+    /**
+     * One page of recipes, newest first
+     */
+    Uni<Page<Recipe>> findPage(PageRequest request);
+
+    /**
+     * Recipe with the given ID, or null
+     */
+    Uni<Recipe> findById(ObjectId id);
+
+    /**
+     * All recipes with the given IDs
+     */
+    Uni<List<Recipe>> findByIds(Collection<ObjectId> ids);
+
+    Uni<List<Recipe>> findByTag(String tag);
+
+    /**
+     * Recipes whose name contains words of the given text, best matches first
+     */
+    Uni<List<Recipe>> findByNameText(String name);
+
+    /**
+     * Recipes whose name starts with the given text (case insensitive), ordered by name
+     */
+    Uni<List<Recipe>> findByNamePrefix(String name);
+
+    /**
+     * Recipes whose name contains the given text literally (case insensitive), ordered by name
+     */
+    Uni<List<Recipe>> findByNameContaining(String name);
+
+    Uni<Recipe> persist(Recipe recipe);
+
+    Uni<Recipe> update(Recipe recipe);
+
+    Uni<Void> delete(Recipe recipe);
+}
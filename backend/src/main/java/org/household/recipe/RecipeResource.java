@@ -1,5 +1,7 @@
 package org.household.recipe;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
@@ -7,26 +9,48 @@ import jakarta.ws.rs.core.MediaType;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
 import org.household.common.ApiResponse;
+import org.household.common.Metrics;
+import org.household.common.PageRequest;
+import org.household.common.PagedResponse;
 import org.household.common.ValidationException;
 import org.jboss.logging.Logger;
 import org.jboss.resteasy.reactive.RestResponse;
 
 import io.smallrye.mutiny.Uni;
 
+import java.util.List;
+
 @Path("/api/recipes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Timed(value = Metrics.API_REQUESTS, histogram = true)
 @Slf4j
 public class RecipeResource {
 
     private static final Logger LOG = Logger.getLogger(RecipeResource.class);
 
+    static final String SEARCH_MODE_NAME = "name";
+    static final String SEARCH_MODE_RANKED = "ranked";
+
     @Inject
     RecipeService recipeService;
 
+    @Inject
+    ObjectMapper objectMapper;
 
+
+    /**
+     * GET /api/recipes All recipes, or one page when cursor, limit or fields is given
+     */
     @GET
-    public Uni<RestResponse<ApiResponse>> getAllRecipes() {
+    public Uni<RestResponse<ApiResponse>> getAllRecipes(@QueryParam("cursor") String cursor,
+                                                        @QueryParam("limit") Integer limit,
+                                                        @QueryParam("fields") String fields) {
+        if (PageRequest.isRequested(cursor, limit, fields)) {
+            return PagedResponse.of(cursor, limit, fields, Recipe.PAGE_FIELDS, "recipes", objectMapper,
+                    recipeService::getRecipesPage);
+        }
+
         return recipeService.getAllRecipes()
                 .onItem()
                 .transform(recipes -> RestResponse.ok(ApiResponse.success("recipes", recipes)));
@@ -111,15 +135,53 @@ public class RecipeResource {
 
     }
 
+    /**
+     * GET /api/recipes/cookable Rank recipes by how much of them the current pantry covers
+     */
+    @GET
+    @Path("/cookable")
+    public Uni<RestResponse<ApiResponse>> getCookableRecipes(@QueryParam("servings") Integer servings,
+                                                            @QueryParam("limit") @DefaultValue("20") int limit) {
+        if (servings != null && servings <= 0) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Servings parameter must be positive", 400)));
+        }
+        if (limit <= 0 || limit > PageRequest.MAX_LIMIT) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Limit parameter must be between 1 and " + PageRequest.MAX_LIMIT, 400)));
+        }
+
+        return recipeService.findCookableRecipes(servings, limit)
+                .onItem()
+                .transform(recipes -> RestResponse.ok(ApiResponse.success("recipes", recipes)));
+    }
+
     @GET
     @Path("/search")
-    public Uni<RestResponse<ApiResponse>> searchRecipes(@QueryParam("name") String name) {
+    public Uni<RestResponse<ApiResponse>> searchRecipes(@QueryParam("name") String name,
+                                                       @QueryParam("mode") @DefaultValue(SEARCH_MODE_NAME) String mode,
+                                                       @QueryParam("limit") @DefaultValue("20") int limit) {
         if (name == null || name.trim().isEmpty()) {
             return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
                     ApiResponse.error("Search name parameter is required", 400)));
         }
 
-        return recipeService.searchRecipesByName(name)
+        Uni<List<Recipe>> results;
+        if (SEARCH_MODE_RANKED.equals(mode)) {
+            if (limit <= 0 || limit > PageRequest.MAX_LIMIT) {
+                return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("Limit parameter must be between 1 and " + PageRequest.MAX_LIMIT, 400)));
+            }
+            // Full-text search over all recipe text, best matches first
+            results = recipeService.searchRecipesRanked(name, limit);
+        } else if (SEARCH_MODE_NAME.equals(mode)) {
+            results = recipeService.searchRecipesByName(name);
+        } else {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Search mode must be 'name' or 'ranked'", 400)));
+        }
+
+        return results
                 .onItem()
                 .transform(recipes -> RestResponse.ok(ApiResponse.success("recipes", recipes)));
     }
@@ -0,0 +1,260 @@
+package org.household.recipe;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.types.ObjectId;
+import org.household.common.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index for ranked recipe search
+ * Indexes name, tags, ingredient names, description and instructions with per-field weights.
+ * A recipe matches when it contains every query term (the last term also matches as a prefix,
+ * so partially typed words find results); matches are ranked by weighted term frequency times
+ * inverse document frequency
+ * Kept in sync by RecipeService writes and rebuilt from the collection at startup; recipes are
+ * copied in and out, so callers never share an instance with the index
+ */
+@ApplicationScoped
+public class RecipeSearchIndex {
+
+    static final int NAME_WEIGHT = 8;
+    static final int TAG_WEIGHT = 4;
+    static final int INGREDIENT_WEIGHT = 4;
+    static final int DESCRIPTION_WEIGHT = 2;
+    static final int INSTRUCTION_WEIGHT = 1;
+
+    /**
+     * Most results a single search returns, whatever the requested limit
+     */
+    static final int MAX_RESULTS = PageRequest.MAX_LIMIT;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Term to weighted frequency per recipe; sorted so prefixes are a range lookup
+     */
+    private final NavigableMap<String, Map<ObjectId, Integer>> postings = new TreeMap<>();
+
+    private final Map<ObjectId, IndexedRecipe> recipes = new HashMap<>();
+
+    /**
+     * Replace the whole index with the given recipes
+     */
+    public void rebuild(Collection<Recipe> allRecipes) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            recipes.clear();
+            for (Recipe recipe : allRecipes) {
+                add(recipe);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a recipe or replace its previous version
+     */
+    public void put(Recipe recipe) {
+        lock.writeLock().lock();
+        try {
+            remove(recipe.id);
+            add(recipe);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a recipe from the index
+     */
+    public void delete(ObjectId id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed recipes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recipes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recipes matching all query terms, best first, at most limit (and at most MAX_RESULTS) results
+     */
+    public List<Recipe> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int maxResults = Math.min(limit, MAX_RESULTS);
+
+        lock.readLock().lock();
+        try {
+            int documentCount = recipes.size();
+            Map<ObjectId, Double> scores = null;
+
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<ObjectId, Double> termScores = scoreTerm(terms.get(i), prefix, documentCount);
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Keep only recipes matching every term so far
+                    Map<ObjectId, Double> combined = new HashMap<>();
+                    for (Map.Entry<ObjectId, Double> entry : scores.entrySet()) {
+                        Double termScore = termScores.get(entry.getKey());
+                        if (termScore != null) {
+                            combined.put(entry.getKey(), entry.getValue() + termScore);
+                        }
+                    }
+                    scores = combined;
+                }
+
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<ObjectId, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<ObjectId, Double>comparingByValue().reversed());
+
+            List<Recipe> results = new ArrayList<>(Math.min(maxResults, ranked.size()));
+            for (Map.Entry<ObjectId, Double> entry : ranked) {
+                if (results.size() == maxResults) {
+                    break;
+                }
+                results.add(recipes.get(entry.getKey()).recipe().copy());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score of every recipe containing the term (or, for a prefix, any term starting with it)
+     * For a prefix each recipe keeps the score of its best matching term
+     */
+    private Map<ObjectId, Double> scoreTerm(String term, boolean prefix, int documentCount) {
+        Map<ObjectId, Double> scores = new HashMap<>();
+        Map<String, Map<ObjectId, Integer>> matching = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+
+        for (Map<ObjectId, Integer> recipeFrequencies : matching.values()) {
+            double idf = Math.log(1.0 + (double) documentCount / recipeFrequencies.size());
+            for (Map.Entry<ObjectId, Integer> entry : recipeFrequencies.entrySet()) {
+                scores.merge(entry.getKey(), entry.getValue() * idf, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void add(Recipe recipe) {
+        if (recipe.id == null) {
+            return;
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        addField(frequencies, recipe.name, NAME_WEIGHT);
+        addField(frequencies, recipe.description, DESCRIPTION_WEIGHT);
+        if (recipe.tags != null) {
+            for (String tag : recipe.tags) {
+                addField(frequencies, tag, TAG_WEIGHT);
+            }
+        }
+        if (recipe.ingredients != null) {
+            for (Recipe.Ingredient ingredient : recipe.ingredients) {
+                addField(frequencies, ingredient.name, INGREDIENT_WEIGHT);
+            }
+        }
+        if (recipe.instructions != null) {
+            for (String instruction : recipe.instructions) {
+                addField(frequencies, instruction, INSTRUCTION_WEIGHT);
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), ignored -> new HashMap<>())
+                    .put(recipe.id, entry.getValue());
+        }
+        recipes.put(recipe.id, new IndexedRecipe(recipe.copy(), frequencies.keySet()));
+    }
+
+    private void remove(ObjectId id) {
+        IndexedRecipe previous = recipes.remove(id);
+        if (previous == null) {
+            return;
+        }
+
+        for (String term : previous.terms()) {
+            Map<ObjectId, Integer> recipeFrequencies = postings.get(term);
+            if (recipeFrequencies != null) {
+                recipeFrequencies.remove(id);
+                if (recipeFrequencies.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Split text into lowercased runs of letters and digits
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private record IndexedRecipe(Recipe recipe, Set<String> terms) {
+
+        IndexedRecipe {
+            terms = new HashSet<>(terms);
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package org.household.recipe;
 
-import io.quarkus.mongodb.panache.common.reactive.Panache;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 import org.bson.types.ObjectId;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.common.Transactions;
 import org.household.common.ValidationException;
+import org.household.ingredient.IngredientSuggestionIndex;
+import org.household.pantry.PantryService;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class for Recipe business logic
@@ -16,11 +25,36 @@ import java.util.List;
 @ApplicationScoped
 public class RecipeService {
 
+    @Inject
+    RecipeRepository recipeRepository;
+
+    @Inject
+    Transactions transactions;
+
+    @Inject
+    RecipeSearchIndex searchIndex;
+
+    @Inject
+    CookableRecipeIndex cookableIndex;
+
+    @Inject
+    PantryService pantryService;
+
+    @Inject
+    IngredientSuggestionIndex ingredientSuggestions;
+
     /**
      * Get all recipes ordered by creation date (newest first)
      */
     public Uni<List<Recipe>> getAllRecipes() {
-        return Recipe.findAllOrderedByCreatedAt();
+        return recipeRepository.findAllOrderedByCreatedAt();
+    }
+
+    /**
+     * Get one page of recipes, newest first
+     */
+    public Uni<Page<Recipe>> getRecipesPage(PageRequest request) {
+        return recipeRepository.findPage(request);
     }
 
     /**
@@ -34,20 +68,24 @@ public class RecipeService {
         }
 
         recipe.prePersist();
-        return Panache.withTransaction(() -> recipe.persist()
+        return transactions.withTransaction(() -> recipeRepository.persist(recipe)
                 .onItem().transform(ignored -> {
                     if (recipe.id == null) {
                         throw new RuntimeException("Failed to persist recipe");
                     }
                     return recipe;
-                }));
+                }))
+                .onItem().invoke(created -> {
+                    indexRecipe(created);
+                    ingredientSuggestions.record(ingredientNames(created));
+                });
     }
 
     /**
      * Get a recipe by ID
      */
     public Uni<Recipe> getRecipeById(ObjectId id) {
-        return Recipe.findById(id);
+        return recipeRepository.findById(id);
     }
 
     /**
@@ -59,9 +97,13 @@ public class RecipeService {
         } catch (ValidationException e) {
             return Uni.createFrom().failure(e);
         }
-        return Panache.withTransaction(() -> Recipe.<Recipe>findById(id)
+        // Set on every attempt, so a retried transaction keeps the names it last replaced
+        AtomicReference<List<String>> previousNames = new AtomicReference<>(List.of());
+        return transactions.withTransaction(() -> recipeRepository.findById(id)
                 .onItem().ifNull().failWith(() -> new NotFoundException("Recipe not found"))
                 .onItem().transformToUni(existingRecipe -> {
+                    previousNames.set(ingredientNames(existingRecipe));
+
                     // Update fields
                     existingRecipe.name = updatedRecipe.name;
                     existingRecipe.description = updatedRecipe.description != null ? updatedRecipe.description : "";
@@ -74,35 +116,103 @@ public class RecipeService {
                     existingRecipe.tags = updatedRecipe.tags != null ? updatedRecipe.tags : List.of();
 
                     existingRecipe.preUpdate();
-                    return existingRecipe.update();
-                }));
+                    return recipeRepository.update(existingRecipe);
+                }))
+                .onItem().invoke(recipe -> {
+                    indexRecipe(recipe);
+                    ingredientSuggestions.update(previousNames.get(), ingredientNames(recipe));
+                });
     }
 
     /**
      * Delete a recipe by ID
      */
     public Uni<Boolean> deleteRecipe(ObjectId id) {
-        return Panache.withTransaction(() -> Recipe.<Recipe>findById(id)
+        AtomicReference<List<String>> deletedNames = new AtomicReference<>(List.of());
+        return transactions.withTransaction(() -> recipeRepository.findById(id)
                 .onItem().transformToUni(recipe -> {
                     if (recipe == null) {
                         return Uni.createFrom().item(false);
                     }
-                    return recipe.delete().replaceWith(true);
-                }));
+                    deletedNames.set(ingredientNames(recipe));
+                    return recipeRepository.delete(recipe).replaceWith(true);
+                }))
+                .onItem().invoke(deleted -> {
+                    if (deleted) {
+                        searchIndex.delete(id);
+                        cookableIndex.delete(id);
+                        ingredientSuggestions.forget(deletedNames.get());
+                    }
+                });
     }
 
     /**
      * Search recipes by name (case insensitive)
+     * Names starting with the text come first, from the name key index, then word matches from
+     * the text index (which also finds other forms of the words). Only when both find nothing,
+     * names containing the text anywhere are searched with a scan of the name keys
      */
     public Uni<List<Recipe>> searchRecipesByName(String name) {
-        return Recipe.findByNameContaining(name);
+        return Uni.combine().all()
+                .unis(recipeRepository.findByNamePrefix(name), recipeRepository.findByNameText(name))
+                .asTuple()
+                .onItem().transformToUni(tuple -> {
+                    Map<ObjectId, Recipe> matches = new LinkedHashMap<>();
+                    for (Recipe recipe : tuple.getItem1()) {
+                        matches.put(recipe.id, recipe);
+                    }
+                    for (Recipe recipe : tuple.getItem2()) {
+                        matches.putIfAbsent(recipe.id, recipe);
+                    }
+                    if (!matches.isEmpty()) {
+                        return Uni.createFrom().<List<Recipe>>item(new ArrayList<>(matches.values()));
+                    }
+                    return recipeRepository.findByNameContaining(name);
+                });
+    }
+
+    /**
+     * Ranked full-text search over name, tags, ingredients, description and instructions
+     * Served from the in-memory search index without querying the database
+     */
+    public Uni<List<Recipe>> searchRecipesRanked(String query, int limit) {
+        return Uni.createFrom().item(() -> searchIndex.search(query, limit));
+    }
+
+    /**
+     * Rank recipes by how much of them the current pantry covers, best first
+     *
+     * @param servings servings to cook, or null to use each recipe's own servings
+     */
+    public Uni<List<CookableRecipe>> findCookableRecipes(Integer servings, int limit) {
+        return pantryService.getPantryAvailability()
+                .onItem().transform(pantry -> cookableIndex.rank(pantry, servings, limit));
     }
 
     /**
      * Find recipes by tag
      */
     public Uni<List<Recipe>> findRecipesByTag(String tag) {
-        return Recipe.findByTag(tag);
+        return recipeRepository.findByTag(tag);
+    }
+
+    /**
+     * Update the in-memory recipe indexes after a recipe write
+     */
+    private void indexRecipe(Recipe recipe) {
+        searchIndex.put(recipe);
+        cookableIndex.put(recipe);
+    }
+
+    private static List<String> ingredientNames(Recipe recipe) {
+        if (recipe.ingredients == null) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(recipe.ingredients.size());
+        for (Recipe.Ingredient ingredient : recipe.ingredients) {
+            names.add(ingredient.name);
+        }
+        return names;
     }
 
     /**
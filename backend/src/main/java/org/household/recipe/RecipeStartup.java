@@ -0,0 +1,108 @@
+package org.household.recipe;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.household.common.DataStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Prepares the recipes collection at startup
+ * Backfills name keys for recipes written before they were persisted and creates the
+ * indexes used by name search, then loads the in-memory recipe indexes
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+@Slf4j
+public class RecipeStartup {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    @Inject
+    RecipeSearchIndex searchIndex;
+
+    @Inject
+    CookableRecipeIndex cookableIndex;
+
+    /**
+     * Searches still work, only slower, without the name keys and database indexes, so failing to
+     * prepare them is logged; failing to load the in-memory indexes fails startup, since ranked
+     * search and pantry coverage would otherwise silently return nothing
+     */
+    void onStart(@Observes StartupEvent event) {
+        backfillNameKeys()
+                .onItem().transformToUni(ignored -> createIndexes())
+                .onFailure().invoke(e -> log.error("Failed to prepare recipe collection", e))
+                .onFailure().recoverWithNull()
+                .onItem().transformToUni(ignored -> rebuildRecipeIndexes())
+                .await().indefinitely();
+    }
+
+    /**
+     * Ascending name key index for substring search and a text index on the name for word search
+     */
+    private Uni<List<String>> createIndexes() {
+        return Recipe.<Recipe>mongoCollection()
+                .createIndexes(List.of(
+                        new IndexModel(Indexes.ascending(Recipe.NAME_KEY_FIELD),
+                                new IndexOptions().name("name_key")),
+                        new IndexModel(Indexes.text("name"),
+                                new IndexOptions().name("name_text"))));
+    }
+
+    private Uni<Void> rebuildRecipeIndexes() {
+        return Recipe.<Recipe>streamAll()
+                .collect().asList()
+                .onItem().invoke(recipes -> {
+                    searchIndex.rebuild(recipes);
+                    cookableIndex.rebuild(recipes);
+                    log.info("Indexed {} recipes for search and pantry coverage", recipes.size());
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * Compute name keys for recipes that don't have one, writing them back in batches
+     */
+    private Uni<Void> backfillNameKeys() {
+        return Recipe.<Recipe>mongoCollection()
+                .find(Filters.exists(Recipe.NAME_KEY_FIELD, false))
+                .group().intoLists().of(BACKFILL_BATCH_SIZE)
+                .onItem().transformToUniAndConcatenate(this::writeNameKeys)
+                .collect().with(Collectors.summingInt(Integer::intValue))
+                .onItem().invoke(count -> {
+                    if (count > 0) {
+                        log.info("Backfilled name keys for {} recipes", count);
+                    }
+                })
+                .replaceWithVoid();
+    }
+
+    private Uni<Integer> writeNameKeys(List<Recipe> recipes) {
+        List<WriteModel<Recipe>> writes = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            recipe.updateNameKey();
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", recipe.id),
+                    Updates.set(Recipe.NAME_KEY_FIELD, recipe.nameKey)));
+        }
+
+        return Recipe.<Recipe>mongoCollection()
+                .bulkWrite(writes, new BulkWriteOptions().ordered(false))
+                .replaceWith(recipes.size());
+    }
+}
@@ -0,0 +1,220 @@
+package org.household.shoppinglist;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.InMemoryCollection;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.mealplan.MealPlan;
+import org.household.recipe.Recipe;
+import org.household.recipe.RecipeRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Shopping lists kept in memory, for load testing without MongoDB; sessions are ignored
+ * The "pipeline" generation mode merges ingredients with {@link ShoppingListIngredientMerger},
+ * which gives the same items as the aggregation
+ */
+@ApplicationScoped
+@IfBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY)
+public class InMemoryShoppingListRepository implements ShoppingListRepository {
+
+    @Inject
+    RecipeRepository recipeRepository;
+
+    private final InMemoryCollection<ShoppingList> shoppingLists = new InMemoryCollection<>(ShoppingList.class);
+
+    @Override
+    public Uni<List<ShoppingList>> findAllOrderedByCreatedAt() {
+        return Uni.createFrom().item(() -> shoppingLists.find(list -> true, newestFirst()));
+    }
+
+    @Override
+    public Uni<List<ShoppingListSummary>> findSummaries() {
+        return findAllOrderedByCreatedAt().onItem().transform(lists -> {
+            List<ShoppingListSummary> summaries = new ArrayList<>(lists.size());
+            for (ShoppingList list : lists) {
+                List<ShoppingList.ShoppingListItem> items = list.items != null ? list.items : List.of();
+                int purchasedCount = 0;
+                for (ShoppingList.ShoppingListItem item : items) {
+                    if (Boolean.TRUE.equals(item.isPurchased)) {
+                        purchasedCount++;
+                    }
+                }
+                summaries.add(new ShoppingListSummary(list.id, list.name, list.description, list.mealPlan,
+                        list.isCompleted != null ? list.isCompleted : false, list.completedAt, list.createdAt,
+                        list.updatedAt, items.size(), purchasedCount));
+            }
+            return summaries;
+        });
+    }
+
+    @Override
+    public Uni<Page<ShoppingList>> findPage(PageRequest request) {
+        return Uni.createFrom().item(() -> shoppingLists.findPage(request, list -> list.createdAt));
+    }
+
+    @Override
+    public Uni<ShoppingList> findById(ObjectId id) {
+        return Uni.createFrom().item(() -> shoppingLists.findById(id));
+    }
+
+    @Override
+    public Uni<ShoppingList> findById(ClientSession session, ObjectId id) {
+        return findById(id);
+    }
+
+    @Override
+    public Uni<List<ShoppingList>> findByMealPlan(ObjectId mealPlanId) {
+        return Uni.createFrom().item(() -> shoppingLists.find(
+                list -> Objects.equals(list.mealPlan, mealPlanId), null));
+    }
+
+    @Override
+    public Uni<List<ShoppingList>> findCompleted() {
+        return Uni.createFrom().item(() -> shoppingLists.find(list -> Boolean.TRUE.equals(list.isCompleted), null));
+    }
+
+    @Override
+    public Uni<List<ShoppingList>> findPending() {
+        return Uni.createFrom().item(() -> shoppingLists.find(list -> Boolean.FALSE.equals(list.isCompleted), null));
+    }
+
+    @Override
+    public Uni<ShoppingList> persist(ShoppingList shoppingList) {
+        return Uni.createFrom().item(() -> shoppingLists.insert(shoppingList));
+    }
+
+    @Override
+    public Uni<ShoppingList> update(ShoppingList shoppingList) {
+        return Uni.createFrom().item(() -> shoppingLists.replace(shoppingList));
+    }
+
+    @Override
+    public Uni<Void> delete(ShoppingList shoppingList) {
+        return Uni.createFrom().item(() -> shoppingLists.delete(shoppingList.id)).replaceWithVoid();
+    }
+
+    @Override
+    public Uni<ShoppingList> setItemPurchased(ClientSession session, ObjectId shoppingListId, String itemId,
+            boolean purchased) {
+        return Uni.createFrom().item(() -> shoppingLists.updateById(shoppingListId,
+                list -> hasItem(list, itemId),
+                list -> {
+                    for (ShoppingList.ShoppingListItem item : list.items) {
+                        if (itemId.equals(item.id)) {
+                            item.isPurchased = purchased;
+                        }
+                    }
+                    list.updatedAt = LocalDateTime.now();
+                }));
+    }
+
+    @Override
+    public Uni<ShoppingList> setItemPurchasedAt(ClientSession session, ObjectId shoppingListId, int itemIndex,
+            boolean purchased) {
+        return Uni.createFrom().item(() -> shoppingLists.updateById(shoppingListId,
+                list -> list.items != null && itemIndex >= 0 && itemIndex < list.items.size(),
+                list -> {
+                    list.items.get(itemIndex).isPurchased = purchased;
+                    list.updatedAt = LocalDateTime.now();
+                }));
+    }
+
+    @Override
+    public Uni<ShoppingList> markItemsPurchased(ClientSession session, ObjectId shoppingListId,
+            List<String> itemIds) {
+        return Uni.createFrom().item(() -> shoppingLists.updateById(shoppingListId, null,
+                list -> {
+                    for (ShoppingList.ShoppingListItem item : list.items) {
+                        if (item.id != null && itemIds.contains(item.id)) {
+                            item.isPurchased = true;
+                        }
+                    }
+                    list.updatedAt = LocalDateTime.now();
+                }));
+    }
+
+    @Override
+    public Uni<ShoppingList> setCompleted(ClientSession session, ObjectId shoppingListId, boolean completed) {
+        return Uni.createFrom().item(() -> shoppingLists.updateById(shoppingListId, null,
+                list -> {
+                    if (completed) {
+                        list.markAsCompleted();
+                    } else {
+                        list.markAsUncompleted();
+                    }
+                    list.updatedAt = LocalDateTime.now();
+                }));
+    }
+
+    @Override
+    public Uni<ShoppingList> removeItem(ClientSession session, ObjectId shoppingListId, String itemId) {
+        return Uni.createFrom().item(() -> shoppingLists.updateById(shoppingListId,
+                list -> hasItem(list, itemId),
+                list -> {
+                    list.items.removeIf(item -> itemId.equals(item.id));
+                    list.updatedAt = LocalDateTime.now();
+                }));
+    }
+
+    @Override
+    public Uni<ShoppingList> addItem(ObjectId shoppingListId, ShoppingList.ShoppingListItem item) {
+        return Uni.createFrom().item(() -> shoppingLists.updateById(shoppingListId, null,
+                list -> {
+                    if (list.items == null) {
+                        list.items = new ArrayList<>();
+                    }
+                    list.items.add(item);
+                    list.updatedAt = LocalDateTime.now();
+                }));
+    }
+
+    @Override
+    public Uni<List<ShoppingList.ShoppingListItem>> mergeIngredients(MealPlan mealPlan) {
+        Set<ObjectId> recipeIds = new HashSet<>();
+        for (MealPlan.MealPlanItem meal : mealPlan.meals) {
+            recipeIds.add(meal.recipe);
+        }
+
+        return recipeRepository.findByIds(recipeIds)
+                .onItem().transform(recipes -> {
+                    Map<ObjectId, Recipe> recipesById = new HashMap<>(recipes.size() * 2);
+                    for (Recipe recipe : recipes) {
+                        recipesById.put(recipe.id, recipe);
+                    }
+                    return ShoppingListIngredientMerger.merge(mealPlan, recipesById);
+                });
+    }
+
+    private static boolean hasItem(ShoppingList list, String itemId) {
+        if (list.items == null) {
+            return false;
+        }
+        for (ShoppingList.ShoppingListItem item : list.items) {
+            if (itemId.equals(item.id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Comparator<ShoppingList> newestFirst() {
+        return Comparator.comparing((ShoppingList list) -> list.createdAt,
+                Comparator.nullsFirst(Comparator.naturalOrder())).reversed();
+    }
+}
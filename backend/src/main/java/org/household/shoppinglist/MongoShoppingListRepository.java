@@ -0,0 +1,184 @@
+package org.household.shoppinglist;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.household.common.DataStore;
+import org.household.common.KeysetPagination;
+import org.household.common.Page;
+import org.household.common.PageCursor;
+import org.household.common.PageRequest;
+import org.household.mealplan.MealPlan;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Shopping lists in MongoDB, through the Panache entity
+ * Item changes update the matching array elements in place instead of rewriting the document
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+public class MongoShoppingListRepository implements ShoppingListRepository {
+
+    @Override
+    public Uni<List<ShoppingList>> findAllOrderedByCreatedAt() {
+        return ShoppingList.findAllOrderedByCreatedAt();
+    }
+
+    @Override
+    public Uni<List<ShoppingListSummary>> findSummaries() {
+        return ShoppingList.findSummaries();
+    }
+
+    @Override
+    public Uni<Page<ShoppingList>> findPage(PageRequest request) {
+        return KeysetPagination.find(ShoppingList.mongoCollection(), request,
+                list -> new PageCursor(list.createdAt, list.id));
+    }
+
+    @Override
+    public Uni<ShoppingList> findById(ObjectId id) {
+        return ShoppingList.findById(id);
+    }
+
+    @Override
+    public Uni<ShoppingList> findById(ClientSession session, ObjectId id) {
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .find(session, Filters.eq("_id", id))
+                .collect().first();
+    }
+
+    @Override
+    public Uni<List<ShoppingList>> findByMealPlan(ObjectId mealPlanId) {
+        return ShoppingList.findByMealPlan(mealPlanId);
+    }
+
+    @Override
+    public Uni<List<ShoppingList>> findCompleted() {
+        return ShoppingList.findCompleted();
+    }
+
+    @Override
+    public Uni<List<ShoppingList>> findPending() {
+        return ShoppingList.findPending();
+    }
+
+    @Override
+    public Uni<ShoppingList> persist(ShoppingList shoppingList) {
+        return shoppingList.persist();
+    }
+
+    @Override
+    public Uni<ShoppingList> update(ShoppingList shoppingList) {
+        return shoppingList.update();
+    }
+
+    @Override
+    public Uni<Void> delete(ShoppingList shoppingList) {
+        return shoppingList.delete();
+    }
+
+    @Override
+    public Uni<ShoppingList> setItemPurchased(ClientSession session, ObjectId shoppingListId, String itemId,
+            boolean purchased) {
+        Bson update = Updates.combine(
+                Updates.set("items.$[item].isPurchased", purchased),
+                Updates.set("updatedAt", LocalDateTime.now()));
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .arrayFilters(List.of(Filters.eq("item." + ShoppingList.ITEM_ID_FIELD, itemId)))
+                .returnDocument(ReturnDocument.AFTER);
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .findOneAndUpdate(session, itemFilter(shoppingListId, itemId), update, options);
+    }
+
+    @Override
+    public Uni<ShoppingList> setItemPurchasedAt(ClientSession session, ObjectId shoppingListId, int itemIndex,
+            boolean purchased) {
+        String itemPath = "items." + itemIndex;
+        Bson update = Updates.combine(
+                Updates.set(itemPath + ".isPurchased", purchased),
+                Updates.set("updatedAt", LocalDateTime.now()));
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .findOneAndUpdate(session,
+                        Filters.and(Filters.eq("_id", shoppingListId), Filters.exists(itemPath)),
+                        update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+    }
+
+    @Override
+    public Uni<ShoppingList> markItemsPurchased(ClientSession session, ObjectId shoppingListId,
+            List<String> itemIds) {
+        Bson update = Updates.combine(
+                Updates.set("items.$[item].isPurchased", true),
+                Updates.set("updatedAt", LocalDateTime.now()));
+        FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .arrayFilters(List.of(Filters.in("item." + ShoppingList.ITEM_ID_FIELD, itemIds)))
+                .returnDocument(ReturnDocument.AFTER);
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .findOneAndUpdate(session, Filters.eq("_id", shoppingListId), update, options);
+    }
+
+    @Override
+    public Uni<ShoppingList> setCompleted(ClientSession session, ObjectId shoppingListId, boolean completed) {
+        LocalDateTime now = LocalDateTime.now();
+        Bson update = Updates.combine(
+                Updates.set("isCompleted", completed),
+                Updates.set("completedAt", completed ? now : null),
+                Updates.set("items.$[].isPurchased", completed),
+                Updates.set("updatedAt", now));
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .findOneAndUpdate(session, Filters.eq("_id", shoppingListId), update,
+                        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+    }
+
+    @Override
+    public Uni<ShoppingList> removeItem(ClientSession session, ObjectId shoppingListId, String itemId) {
+        Bson update = Updates.combine(
+                Updates.pull("items", new Document(ShoppingList.ITEM_ID_FIELD, itemId)),
+                Updates.set("updatedAt", LocalDateTime.now()));
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .findOneAndUpdate(session, itemFilter(shoppingListId, itemId), update,
+                        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+    }
+
+    @Override
+    public Uni<ShoppingList> addItem(ObjectId shoppingListId, ShoppingList.ShoppingListItem item) {
+        Bson update = Updates.combine(
+                Updates.push("items", item),
+                Updates.set("updatedAt", LocalDateTime.now()));
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .findOneAndUpdate(Filters.eq("_id", shoppingListId), update,
+                        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+    }
+
+    /**
+     * Runs {@link ShoppingListAggregation} on the meal plan
+     */
+    @Override
+    public Uni<List<ShoppingList.ShoppingListItem>> mergeIngredients(MealPlan mealPlan) {
+        return ShoppingListAggregation.mergeIngredients(mealPlan.id);
+    }
+
+    /**
+     * Filter matching a shopping list that contains an item with the given stored ID
+     */
+    private Bson itemFilter(ObjectId shoppingListId, String itemId) {
+        return Filters.and(
+                Filters.eq("_id", shoppingListId),
+                Filters.eq("items." + ShoppingList.ITEM_ID_FIELD, itemId));
+    }
+}
@@ -1,22 +1,39 @@
 package org.household.shoppinglist;
 
-import io.quarkus.mongodb.panache.PanacheMongoEntity;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import io.quarkus.mongodb.panache.common.MongoEntity;
+import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoEntity;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.mutiny.Uni;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
+import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * ShoppingList entity representing a shopping list
  * Equivalent to the Next.js ShoppingList model
  */
 @MongoEntity(collection = "shoppinglists")
-public class ShoppingList extends PanacheMongoEntity {
+public class ShoppingList extends ReactivePanacheMongoEntity {
+
+    /**
+     * Stored name of ShoppingListItem.id - the POJO codec maps properties called "id" to "_id"
+     */
+    public static final String ITEM_ID_FIELD = "_id";
+
+    /**
+     * Top-level fields a page request may select
+     */
+    public static final Set<String> PAGE_FIELDS = Set.of("id", "name", "description", "mealPlan", "items",
+            "isCompleted", "completedAt", "createdAt", "updatedAt");
 
     @NotBlank(message = "Shopping list name is required")
     public String name;
@@ -57,31 +74,55 @@ public class ShoppingList extends PanacheMongoEntity {
     /**
      * Find shopping lists by meal plan ID
      */
-    public static List<ShoppingList> findByMealPlan(ObjectId mealPlanId) {
+    public static Uni<List<ShoppingList>> findByMealPlan(ObjectId mealPlanId) {
         return find("mealPlan", mealPlanId).list();
     }
 
     /**
      * Find completed shopping lists
      */
-    public static List<ShoppingList> findCompleted() {
+    public static Uni<List<ShoppingList>> findCompleted() {
         return find("isCompleted", true).list();
     }
 
     /**
      * Find pending (uncompleted) shopping lists
      */
-    public static List<ShoppingList> findPending() {
+    public static Uni<List<ShoppingList>> findPending() {
         return find("isCompleted", false).list();
     }
 
     /**
      * Find all shopping lists ordered by creation date (newest first)
      */
-    public static List<ShoppingList> findAllOrderedByCreatedAt() {
+    public static Uni<List<ShoppingList>> findAllOrderedByCreatedAt() {
         return findAll(Sort.by("createdAt").descending()).list();
     }
 
+    /**
+     * Summaries of all shopping lists ordered by creation date (newest first)
+     * Items are not loaded: the database counts them with $size and $filter
+     */
+    public static Uni<List<ShoppingListSummary>> findSummaries() {
+        Document items = new Document("$ifNull", List.of("$items", List.of()));
+        Document purchasedItems = new Document("$filter", new Document()
+                .append("input", items)
+                .append("as", "item")
+                .append("cond", new Document("$eq", List.of("$$item.isPurchased", true))));
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .aggregate(List.of(
+                        Aggregates.sort(Sorts.descending("createdAt")),
+                        Aggregates.project(Projections.fields(
+                                Projections.include("name", "description", "mealPlan", "isCompleted",
+                                        "completedAt", "createdAt", "updatedAt"),
+                                Projections.computed("totalItems", new Document("$size", items)),
+                                Projections.computed("purchasedCount", new Document("$size", purchasedItems))))),
+                        Document.class)
+                .map(ShoppingListSummary::fromDocument)
+                .collect().asList();
+    }
+
     /**
      * Mark shopping list as completed
      */
@@ -128,25 +169,22 @@ public class ShoppingList extends PanacheMongoEntity {
     }
 
     /**
-     * Generate unique IDs for all items in this shopping list
+     * Assign an ID to every item that doesn't have one yet
+     * Called before items are written, so IDs are stored once and never change afterwards
      */
     public void generateAndSetItemIds() {
-        for (int i = 0; i < items.size(); i++) {
-            ShoppingListItem item = items.get(i);
+        for (ShoppingListItem item : items) {
             if (item.id == null) {
-                item.id = generateItemId(item, i);
+                item.id = newItemId();
             }
         }
     }
 
     /**
-     * Generate a unique ID for a shopping list item based on its properties and index
+     * Generate a new unique shopping list item ID
      */
-    private String generateItemId(ShoppingListItem item, int index) {
-        String combined = item.name + "|" + item.quantity + "|" + item.unit + "|" +
-                (item.category != null ? item.category : "") + "|" +
-                (item.notes != null ? item.notes : "") + "|" + index;
-        return String.valueOf(Math.abs(combined.hashCode()));
+    public static String newItemId() {
+        return new ObjectId().toHexString();
     }
 
     /**
@@ -154,7 +192,7 @@ public class ShoppingList extends PanacheMongoEntity {
      */
     public static class ShoppingListItem {
 
-        public String id; // Generated ID for frontend identification
+        public String id; // Assigned once when the item is stored, used by the frontend and item operations
 
         @NotBlank(message = "Item name is required")
         @com.fasterxml.jackson.annotation.JsonProperty("ingredient")
@@ -0,0 +1,115 @@
+package org.household.shoppinglist;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UnwindOptions;
+import io.smallrye.mutiny.Uni;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.household.mealplan.MealPlan;
+import org.household.units.Unit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Server-side merge of meal plan ingredients into shopping list items
+ * Used by the "pipeline" shopping list generation mode: meals are joined with their recipes,
+ * scaled by servings and grouped by normalized name and unit in a single aggregation
+ */
+public final class ShoppingListAggregation {
+
+    private ShoppingListAggregation() {
+    }
+
+    /**
+     * Run the aggregation for a meal plan and map the groups to shopping list items
+     */
+    public static Uni<List<ShoppingList.ShoppingListItem>> mergeIngredients(ObjectId mealPlanId) {
+        return MealPlan.<MealPlan>mongoCollection()
+                .aggregate(pipeline(mealPlanId), Document.class)
+                .map(ShoppingListAggregation::toItem)
+                .collect().asList();
+    }
+
+    /**
+     * $unwind meals, $lookup recipes, $unwind ingredients, $sort by use, $group by normalized name
+     * and unit dimension summing the servings-scaled fixed-point base quantity, then restore the
+     * order of first use
+     */
+    static List<Bson> pipeline(ObjectId mealPlanId) {
+        Document scaledQuantity = new Document("$divide", List.of(
+                new Document("$multiply", List.of("$recipe.ingredients.quantity", "$meals.servings")),
+                "$recipe.servings"));
+        Document baseQuantity = new Document("$toLong", new Document("$round", List.of(
+                new Document("$multiply", List.of(scaledQuantity, "$unitFactor")), 0)));
+
+        Document groupKey = new Document()
+                .append("name", normalized("$recipe.ingredients.name"))
+                .append("unit", "$unitKey");
+
+        return List.of(
+                Aggregates.match(Filters.eq("_id", mealPlanId)),
+                Aggregates.unwind("$meals", new UnwindOptions().includeArrayIndex("mealIndex")),
+                Aggregates.lookup("recipes", "meals.recipe", "_id", "recipe"),
+                Aggregates.unwind("$recipe"),
+                // Guard the division below, Java would otherwise produce NaN or Infinity here
+                Aggregates.match(Filters.gt("recipe.servings", 0)),
+                Aggregates.unwind("$recipe.ingredients", new UnwindOptions().includeArrayIndex("ingredientIndex")),
+                Aggregates.set(
+                        new Field<>("unitKey", unitSwitch(unit -> unit.getDimension().getBaseUnit(),
+                                normalized("$recipe.ingredients.unit"))),
+                        new Field<>("unitFactor", unitSwitch(Unit::getFactor, Unit.FIXED_POINT_SCALE))),
+                // $group does not keep input order, $first only picks the first use after this sort
+                Aggregates.sort(Sorts.ascending("mealIndex", "ingredientIndex")),
+                Aggregates.group(groupKey,
+                        Accumulators.first("name", "$recipe.ingredients.name"),
+                        Accumulators.first("unit", "$recipe.ingredients.unit"),
+                        Accumulators.first("category", "$recipe.ingredients.category"),
+                        Accumulators.first("recipe", "$meals.recipe"),
+                        Accumulators.first("mealIndex", "$mealIndex"),
+                        Accumulators.first("ingredientIndex", "$ingredientIndex"),
+                        Accumulators.sum("baseQuantity", baseQuantity)),
+                Aggregates.sort(Sorts.ascending("mealIndex", "ingredientIndex")));
+    }
+
+    /**
+     * $switch mapping every known spelling of the ingredient unit to a value of its Unit,
+     * the same lookup as {@link Unit#fromString(String)}
+     */
+    private static Document unitSwitch(Function<Unit, Object> value, Object defaultValue) {
+        Document unit = normalized("$recipe.ingredients.unit");
+        List<Document> branches = new ArrayList<>();
+        for (Map.Entry<String, Unit> spelling : Unit.spellings().entrySet()) {
+            branches.add(new Document()
+                    .append("case", new Document("$eq", List.of(unit, spelling.getKey())))
+                    .append("then", value.apply(spelling.getValue())));
+        }
+        return new Document("$switch", new Document()
+                .append("branches", branches)
+                .append("default", defaultValue));
+    }
+
+    private static Document normalized(String fieldPath) {
+        return new Document("$toLower", new Document("$trim", new Document("input", fieldPath)));
+    }
+
+    private static ShoppingList.ShoppingListItem toItem(Document group) {
+        String name = group.getString("name");
+        String unit = group.getString("unit");
+        Number baseQuantity = group.get("baseQuantity", Number.class);
+        return new ShoppingList.ShoppingListItem(
+                name,
+                baseQuantity != null ? Unit.fromBase(baseQuantity.longValue(), unit) : 0.0,
+                unit,
+                group.getString("category"),
+                group.getObjectId("recipe"),
+                name);
+    }
+}
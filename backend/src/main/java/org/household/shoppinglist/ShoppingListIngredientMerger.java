@@ -0,0 +1,63 @@
+package org.household.shoppinglist;
+
+import org.bson.types.ObjectId;
+import org.household.mealplan.MealPlan;
+import org.household.pantry.PantryAvailability;
+import org.household.recipe.Recipe;
+import org.household.units.Unit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory merge of meal plan ingredients into shopping list items
+ * Used by the "java" shopping list generation mode
+ */
+public final class ShoppingListIngredientMerger {
+
+    private ShoppingListIngredientMerger() {
+    }
+
+    /**
+     * Collect all ingredients from recipes in the meal plan, scaled by servings
+     * Ingredients with the same name and unit dimension are merged into one item, in order of first use
+     * Quantities are summed as fixed-point base quantities and shown in the unit of the first use
+     */
+    public static List<ShoppingList.ShoppingListItem> merge(MealPlan mealPlan, Map<ObjectId, Recipe> recipesById) {
+        Map<String, ShoppingList.ShoppingListItem> ingredientMap = new LinkedHashMap<>();
+        Map<String, Long> baseQuantities = new HashMap<>();
+
+        for (MealPlan.MealPlanItem meal : mealPlan.meals) {
+            Recipe recipe = recipesById.get(meal.recipe);
+            if (recipe == null) {
+                continue;
+            }
+
+            for (Recipe.Ingredient ingredient : recipe.ingredients) {
+                // Calculate required quantity based on servings
+                double requiredQuantity = ingredient.quantity * meal.servings / recipe.servings;
+
+                String key = PantryAvailability.key(ingredient.name, ingredient.unit);
+
+                // Create the item on first use, quantities are filled in below
+                ingredientMap.computeIfAbsent(key, ignored -> new ShoppingList.ShoppingListItem(
+                        ingredient.name,
+                        0.0,
+                        ingredient.unit,
+                        ingredient.category,
+                        meal.recipe,
+                        ingredient.name));
+                baseQuantities.merge(key, Unit.toBase(requiredQuantity, ingredient.unit), Long::sum);
+            }
+        }
+
+        for (Map.Entry<String, ShoppingList.ShoppingListItem> entry : ingredientMap.entrySet()) {
+            ShoppingList.ShoppingListItem item = entry.getValue();
+            item.quantity = Unit.fromBase(baseQuantities.get(entry.getKey()), item.unit);
+        }
+        return new ArrayList<>(ingredientMap.values());
+    }
+}
@@ -0,0 +1,97 @@
+package org.household.shoppinglist;
+
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.smallrye.mutiny.Uni;
+import org.bson.types.ObjectId;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.mealplan.MealPlan;
+
+import java.util.List;
+
+/**
+ * Data access for shopping lists, backed by MongoDB or kept in memory depending on {@link org.household.common.DataStore}
+ * Item changes are targeted updates of a single list that emit the list after the change
+ */
+public interface ShoppingListRepository {
+
+    /**
+     * All shopping lists ordered by creation date (newest first)
+     */
+    Uni<List<ShoppingList>> findAllOrderedByCreatedAt();
+
+    /**
+     * Summaries of all shopping lists ordered by creation date (newest first)
+     */
+    Uni<List<ShoppingListSummary>> findSummaries();
+
+    /**
+     * One page of shopping lists, newest first
+     */
+    Uni<Page<ShoppingList>> findPage(PageRequest request);
+
+    /**
+     * Shopping list with the given ID, or null
+     */
+    Uni<ShoppingList> findById(ObjectId id);
+
+    /**
+     * Shopping list with the given ID read inside the given session's transaction, or null
+     */
+    Uni<ShoppingList> findById(ClientSession session, ObjectId id);
+
+    Uni<List<ShoppingList>> findByMealPlan(ObjectId mealPlanId);
+
+    Uni<List<ShoppingList>> findCompleted();
+
+    Uni<List<ShoppingList>> findPending();
+
+    Uni<ShoppingList> persist(ShoppingList shoppingList);
+
+    Uni<ShoppingList> update(ShoppingList shoppingList);
+
+    Uni<Void> delete(ShoppingList shoppingList);
+
+    /**
+     * Set the purchased flag of one item inside the given session's transaction; emits null when
+     * the list or the item does not exist
+     */
+    Uni<ShoppingList> setItemPurchased(ClientSession session, ObjectId shoppingListId, String itemId,
+            boolean purchased);
+
+    /**
+     * Set the purchased flag of the item at the given position inside the given session's
+     * transaction; emits null when the list or the item does not exist
+     */
+    Uni<ShoppingList> setItemPurchasedAt(ClientSession session, ObjectId shoppingListId, int itemIndex,
+            boolean purchased);
+
+    /**
+     * Mark every item with one of the given IDs as purchased inside the given session's transaction;
+     * emits null when the list does not exist
+     */
+    Uni<ShoppingList> markItemsPurchased(ClientSession session, ObjectId shoppingListId, List<String> itemIds);
+
+    /**
+     * Mark the list completed with all items purchased, or uncompleted with none purchased, inside
+     * the given session's transaction; emits null when the list does not exist
+     */
+    Uni<ShoppingList> setCompleted(ClientSession session, ObjectId shoppingListId, boolean completed);
+
+    /**
+     * Remove one item inside the given session's transaction; emits null when the list or the
+     * item does not exist
+     */
+    Uni<ShoppingList> removeItem(ClientSession session, ObjectId shoppingListId, String itemId);
+
+    /**
+     * Append an item; emits null when the list does not exist
+     */
+    Uni<ShoppingList> addItem(ObjectId shoppingListId, ShoppingList.ShoppingListItem item);
+
+    /**
+     * Merge the ingredients of all meals in the plan into shopping list items, in order of first use
+     * Used by the "pipeline" generation mode
+     */
+    Uni<List<ShoppingList.ShoppingListItem>> mergeIngredients(MealPlan mealPlan);
+}
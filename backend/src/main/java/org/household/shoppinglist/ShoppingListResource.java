@@ -1,15 +1,22 @@
 package org.household.shoppinglist;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
-import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
 
 import org.bson.types.ObjectId;
 import org.household.common.ApiResponse;
+import org.household.common.Metrics;
+import org.household.common.PageRequest;
+import org.household.common.PagedResponse;
 import org.household.common.ValidationException;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import io.smallrye.mutiny.Uni;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,167 +25,177 @@ import java.util.List;
 @Path("/api/shoppingList")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Timed(value = Metrics.API_REQUESTS, histogram = true)
 @Slf4j
 public class ShoppingListResource {
 
+    static final String VIEW_SUMMARY = "summary";
+
     @Inject
     ShoppingListService shoppingListService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
 
+    /**
+     * GET /api/shoppingList All shopping lists, or one page when cursor, limit or fields is given
+     * view=summary returns item counts instead of items
+     */
     @GET
-    public Response getAllShoppingLists() {
-            List<ShoppingList> shoppingLists = shoppingListService.getAllShoppingLists();
-            return Response.ok(ApiResponse.success("shoppingLists", shoppingLists)).build();
+    public Uni<RestResponse<ApiResponse>> getAllShoppingLists(@QueryParam("cursor") String cursor,
+                                                              @QueryParam("limit") Integer limit,
+                                                              @QueryParam("fields") String fields,
+                                                              @QueryParam("view") String view) {
+        if (view != null) {
+            if (!VIEW_SUMMARY.equals(view)) {
+                return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("View must be 'summary'", 400)));
+            }
+            return shoppingListService.getShoppingListSummaries()
+                    .onItem()
+                    .transform(summaries -> RestResponse.ok(ApiResponse.success("shoppingLists", summaries)));
+        }
+
+        if (PageRequest.isRequested(cursor, limit, fields)) {
+            return PagedResponse.of(cursor, limit, fields, ShoppingList.PAGE_FIELDS, "shoppingLists",
+                    objectMapper, shoppingListService::getShoppingListsPage);
+        }
+
+        return shoppingListService.getAllShoppingLists()
+                .onItem()
+                .transform(shoppingLists -> RestResponse.ok(ApiResponse.success("shoppingLists", shoppingLists)));
     }
 
 
     @POST
-    public Response createShoppingList(CreateShoppingListRequest request) {
-        try {
-            ShoppingList createdList;
-
-            if (request.mealPlanId != null && ObjectId.isValid(request.mealPlanId)) {
-                // Create from meal plan
-                createdList = shoppingListService.createShoppingListFromMealPlan(
-                        new ObjectId(request.mealPlanId),
-                        request.name);
-            } else {
-                // Create from scratch
-                ShoppingList shoppingList = new ShoppingList();
-                shoppingList.name = request.name;
-                shoppingList.description = request.description;
-                shoppingList.items = request.items != null ? request.items : new ArrayList<>();
-
-                createdList = shoppingListService.createShoppingList(shoppingList);
-            }
+    public Uni<RestResponse<ApiResponse>> createShoppingList(CreateShoppingListRequest request) {
+        Uni<ShoppingList> createdList;
+
+        if (request.mealPlanId != null && ObjectId.isValid(request.mealPlanId)) {
+            // Create from meal plan
+            createdList = shoppingListService.createShoppingListFromMealPlan(
+                    new ObjectId(request.mealPlanId),
+                    request.name);
+        } else {
+            // Create from scratch
+            ShoppingList shoppingList = new ShoppingList();
+            shoppingList.name = request.name;
+            shoppingList.description = request.description;
+            shoppingList.items = request.items != null ? request.items : new ArrayList<>();
+
+            createdList = shoppingListService.createShoppingList(shoppingList);
+        }
 
-            return Response.status(Response.Status.CREATED)
-                    .entity(ApiResponse.success("shoppingList", createdList))
-                    .build();
-        } catch (ValidationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Invalid shopping list data", 400, e.getValidationIssues()))
-                    .build();
-        } 
+        return createdList
+                .onItem()
+                .transform(list -> RestResponse.status(RestResponse.Status.CREATED,
+                        ApiResponse.success("shoppingList", list)))
+                .onFailure(ValidationException.class)
+                .recoverWithItem(ex -> RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("Invalid shopping list data", 400,
+                                ((ValidationException) ex).getValidationIssues())));
     }
 
     @POST
     @Path("/fromMealPlan")
-    public Response createShoppingListFromMealPlan(
+    public Uni<RestResponse<ApiResponse>> createShoppingListFromMealPlan(
             @QueryParam("mealPlanId") String mealPlanId,
             @QueryParam("name") String name) {
-        try {
-            if (mealPlanId == null || !ObjectId.isValid(mealPlanId)) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(ApiResponse.error("Valid meal plan ID is required", 400))
-                        .build();
-            }
+        if (mealPlanId == null || !ObjectId.isValid(mealPlanId)) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Valid meal plan ID is required", 400)));
+        }
 
-            ShoppingList createdList = shoppingListService.createShoppingListFromMealPlan(
-                    new ObjectId(mealPlanId), name);
-
-            return Response.status(Response.Status.CREATED)
-                    .entity(ApiResponse.success("shoppingList", createdList))
-                    .build();
-        } catch (ValidationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error(e.getMessage(), 400, e.getValidationIssues()))
-                    .build();
-        } 
+        return shoppingListService.createShoppingListFromMealPlan(new ObjectId(mealPlanId), name)
+                .onItem()
+                .transform(createdList -> RestResponse.status(RestResponse.Status.CREATED,
+                        ApiResponse.success("shoppingList", createdList)))
+                .onFailure(ValidationException.class)
+                .recoverWithItem(this::validationError);
     }
 
 
     @GET
     @Path("/{id}")
-    public Response getShoppingListById(@PathParam("id") String id) {
-            if (!ObjectId.isValid(id)) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(ApiResponse.error("Invalid shopping list ID format", 400))
-                        .build();
-            }
-
-            ShoppingList shoppingList = shoppingListService.getShoppingListById(new ObjectId(id));
-            if (shoppingList == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity(ApiResponse.error("Shopping list not found", 404))
-                        .build();
-            }
+    public Uni<RestResponse<ApiResponse>> getShoppingListById(@PathParam("id") String id) {
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Invalid shopping list ID format", 400)));
+        }
 
-            return Response.ok(ApiResponse.success("shoppingList", shoppingList)).build();
+        return shoppingListService.getShoppingListById(new ObjectId(id))
+                .onItem().transform(shoppingList -> {
+                    if (shoppingList == null) {
+                        return RestResponse.status(RestResponse.Status.NOT_FOUND,
+                                ApiResponse.error("Shopping list not found", 404));
+                    }
+                    return RestResponse.ok(ApiResponse.success("shoppingList", shoppingList));
+                });
     }
 
 
     @PUT
     @Path("/{id}")
-    public Response updateShoppingList(@PathParam("id") String id, @Valid ShoppingList shoppingList) {
-        try {
-            if (!ObjectId.isValid(id)) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(ApiResponse.error("Invalid shopping list ID format", 400))
-                        .build();
-            }
-
-            ShoppingList updatedList = shoppingListService.updateShoppingList(new ObjectId(id), shoppingList);
-            if (updatedList == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity(ApiResponse.error("Shopping list not found", 404))
-                        .build();
-            }
-
-            return Response.ok(ApiResponse.success("shoppingList", updatedList)).build();
-        } catch (ValidationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Invalid shopping list data", 400, e.getValidationIssues()))
-                    .build();
+    public Uni<RestResponse<ApiResponse>> updateShoppingList(@PathParam("id") String id,
+            @Valid ShoppingList shoppingList) {
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Invalid shopping list ID format", 400)));
         }
+
+        return shoppingListService.updateShoppingList(new ObjectId(id), shoppingList)
+                .onItem().transform(updatedList -> {
+                    if (updatedList == null) {
+                        return RestResponse.status(RestResponse.Status.NOT_FOUND,
+                                ApiResponse.error("Shopping list not found", 404));
+                    }
+                    return RestResponse.ok(ApiResponse.success("shoppingList", updatedList));
+                })
+                .onFailure(ValidationException.class)
+                .recoverWithItem(ex -> RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("Invalid shopping list data", 400,
+                                ((ValidationException) ex).getValidationIssues())));
     }
 
     @DELETE
     @Path("/{id}")
-    public Response deleteShoppingList(@PathParam("id") String id) {
+    public Uni<RestResponse<ApiResponse>> deleteShoppingList(@PathParam("id") String id) {
         if (!ObjectId.isValid(id)) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error("Invalid shopping list ID format", 400))
-                    .build();
-        }
-
-        boolean deleted = shoppingListService.deleteShoppingList(new ObjectId(id));
-        if (!deleted) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(ApiResponse.error("Shopping list not found", 404))
-                    .build();
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Invalid shopping list ID format", 400)));
         }
 
-        return Response.ok(ApiResponse.success("message", "Shopping list deleted successfully")).build();
+        return shoppingListService.deleteShoppingList(new ObjectId(id))
+                .onItem().transform(deleted -> {
+                    if (!deleted) {
+                        return RestResponse.status(RestResponse.Status.NOT_FOUND,
+                                ApiResponse.error("Shopping list not found", 404));
+                    }
+                    return RestResponse.ok(ApiResponse.success("message", "Shopping list deleted successfully"));
+                });
     }
 
     @POST
     @Path("/{id}/copy")
-    public Response copyShoppingList(@PathParam("id") String id, CopyShoppingListRequest request) {
-        try {
-            if (!ObjectId.isValid(id)) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(ApiResponse.error("Invalid shopping list ID format", 400))
-                        .build();
-            }
-
-            ShoppingList copiedList = shoppingListService.copyShoppingList(new ObjectId(id), 
-                    request != null ? request.name : null);
-            
-            if (copiedList == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity(ApiResponse.error("Shopping list not found", 404))
-                        .build();
-            }
-
-            return Response.status(Response.Status.CREATED)
-                    .entity(ApiResponse.success("shoppingList", copiedList))
-                    .build();
-        } catch (ValidationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error(e.getMessage(), 400, e.getValidationIssues()))
-                    .build();
+    public Uni<RestResponse<ApiResponse>> copyShoppingList(@PathParam("id") String id,
+            CopyShoppingListRequest request) {
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Invalid shopping list ID format", 400)));
         }
+
+        return shoppingListService.copyShoppingList(new ObjectId(id), request != null ? request.name : null)
+                .onItem().transform(copiedList -> {
+                    if (copiedList == null) {
+                        return RestResponse.status(RestResponse.Status.NOT_FOUND,
+                                ApiResponse.error("Shopping list not found", 404));
+                    }
+                    return RestResponse.status(RestResponse.Status.CREATED,
+                            ApiResponse.success("shoppingList", copiedList));
+                })
+                .onFailure(ValidationException.class)
+                .recoverWithItem(this::validationError);
     }
 
     /**
@@ -187,68 +204,74 @@ public class ShoppingListResource {
      */
     @PATCH
     @Path("/{id}")
-    public Response patchShoppingList(@PathParam("id") String id, PatchShoppingListRequest request) {
-        try {
-            if (!ObjectId.isValid(id)) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(ApiResponse.error("Invalid shopping list ID format", 400))
-                        .build();
-            }
+    public Uni<RestResponse<ApiResponse>> patchShoppingList(@PathParam("id") String id,
+            PatchShoppingListRequest request) {
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Invalid shopping list ID format", 400)));
+        }
 
-            ObjectId shoppingListId = new ObjectId(id);
-
-            // Handle different operations
-            if ("toggle-purchased".equals(request.operation)) {
-                ShoppingList updatedList = shoppingListService.toggleItemPurchasedById(
-                        shoppingListId,
-                        request.itemId,
-                        request.purchased != null ? request.purchased : true,
-                        request.autoAddToPantry != null ? request.autoAddToPantry : false);
-                return Response.ok(ApiResponse.success("shoppingList", updatedList)).build();
-
-            } else if ("remove-item".equals(request.operation)) {
-                ShoppingList updatedList = shoppingListService.removeItemById(shoppingListId, request.itemId);
-                return Response.ok(ApiResponse.success("shoppingList", updatedList)).build();
-
-            } else if ("transfer-to-pantry".equals(request.operation)) {
-                ShoppingList updatedList = shoppingListService.transferItemsToPantry(
-                        shoppingListId,
-                        request.itemIds);
-                return Response.ok(ApiResponse.success("shoppingList", updatedList)).build();
-
-            } else if ("add-item".equals(request.operation)) {
-                if (request.item == null || request.item.ingredient == null || request.item.quantity == null
-                        || request.item.unit == null) {
-                    return Response.status(Response.Status.BAD_REQUEST)
-                            .entity(ApiResponse.error("Invalid item data - ingredient, quantity, and unit are required",
-                                    400))
-                            .build();
-                }
-
-                ShoppingList updatedList = shoppingListService.addItemToShoppingList(shoppingListId, request.item);
-                return Response.ok(ApiResponse.success("shoppingList", updatedList)).build();
-
-            } else if (request.itemIndex != null) {
-                // Legacy support: Toggle item purchased status by index
-                shoppingListService.toggleItemPurchased(shoppingListId, request.itemIndex);
-                return Response.ok(ApiResponse.success("message", "Item status toggled successfully")).build();
-
-            } else if (request.isCompleted != null && request.isCompleted) {
-                // Legacy support: Complete shopping list
-                boolean addToPantry = request.addToPantry != null ? request.addToPantry : true;
-                shoppingListService.completeShoppingList(shoppingListId, addToPantry);
-                return Response.ok(ApiResponse.success("message", "Shopping list completed successfully")).build();
-
-            } else {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(ApiResponse.error("Invalid patch request - operation is required", 400))
-                        .build();
+        ObjectId shoppingListId = new ObjectId(id);
+        Uni<RestResponse<ApiResponse>> response;
+
+        // Handle different operations
+        if ("toggle-purchased".equals(request.operation)) {
+            response = shoppingListService.toggleItemPurchasedById(
+                            shoppingListId,
+                            request.itemId,
+                            request.purchased != null ? request.purchased : true,
+                            request.autoAddToPantry != null ? request.autoAddToPantry : false)
+                    .onItem().transform(this::shoppingListResponse);
+
+        } else if ("remove-item".equals(request.operation)) {
+            response = shoppingListService.removeItemById(shoppingListId, request.itemId)
+                    .onItem().transform(this::shoppingListResponse);
+
+        } else if ("transfer-to-pantry".equals(request.operation)) {
+            response = shoppingListService.transferItemsToPantry(shoppingListId, request.itemIds)
+                    .onItem().transform(this::shoppingListResponse);
+
+        } else if ("add-item".equals(request.operation)) {
+            if (request.item == null || request.item.ingredient == null || request.item.quantity == null
+                    || request.item.unit == null) {
+                return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                        ApiResponse.error("Invalid item data - ingredient, quantity, and unit are required", 400)));
             }
-        } catch (ValidationException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ApiResponse.error(e.getMessage(), 400, e.getValidationIssues()))
-                    .build();
+
+            response = shoppingListService.addItemToShoppingList(shoppingListId, request.item)
+                    .onItem().transform(this::shoppingListResponse);
+
+        } else if (request.itemIndex != null) {
+            // Legacy support: Toggle item purchased status by index
+            response = shoppingListService.toggleItemPurchased(shoppingListId, request.itemIndex)
+                    .onItem().transform(ignored -> RestResponse.ok(
+                            ApiResponse.success("message", "Item status toggled successfully")));
+
+        } else if (request.isCompleted != null && request.isCompleted) {
+            // Legacy support: Complete shopping list
+            boolean addToPantry = request.addToPantry != null ? request.addToPantry : true;
+            response = shoppingListService.completeShoppingList(shoppingListId, addToPantry)
+                    .onItem().transform(ignored -> RestResponse.ok(
+                            ApiResponse.success("message", "Shopping list completed successfully")));
+
+        } else {
+            return Uni.createFrom().item(RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                    ApiResponse.error("Invalid patch request - operation is required", 400)));
         }
+
+        return response
+                .onFailure(ValidationException.class)
+                .recoverWithItem(this::validationError);
+    }
+
+    private RestResponse<ApiResponse> shoppingListResponse(ShoppingList shoppingList) {
+        return RestResponse.ok(ApiResponse.success("shoppingList", shoppingList));
+    }
+
+    private RestResponse<ApiResponse> validationError(Throwable throwable) {
+        ValidationException e = (ValidationException) throwable;
+        return RestResponse.status(RestResponse.Status.BAD_REQUEST,
+                ApiResponse.error(e.getMessage(), 400, e.getValidationIssues()));
     }
 
     /**
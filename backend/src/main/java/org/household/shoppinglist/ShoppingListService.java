@@ -1,18 +1,37 @@
 package org.household.shoppinglist;
 
+import com.mongodb.reactivestreams.client.ClientSession;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.transaction.Transactional;
 import jakarta.inject.Inject;
 import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.household.common.Metrics;
+import org.household.common.Page;
+import org.household.common.PageRequest;
+import org.household.common.Transactions;
 import org.household.common.ValidationException;
+import org.household.diagnostics.PantryStatusEvent;
+import org.household.diagnostics.PantryTransferEvent;
+import org.household.diagnostics.ShoppingListGenerationEvent;
 import org.household.mealplan.MealPlan;
+import org.household.mealplan.MealPlanRepository;
+import org.household.ingredient.IngredientSuggestionIndex;
+import org.household.pantry.PantryAvailability;
+import org.household.pantry.PantryQuantityChange;
 import org.household.pantry.PantryService;
 import org.household.recipe.Recipe;
+import org.household.recipe.RecipeRepository;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class for ShoppingList business logic
@@ -21,273 +40,331 @@ import java.util.Map;
 @ApplicationScoped
 public class ShoppingListService {
 
+    static final String GENERATION_MODE_PIPELINE = "pipeline";
+
+    @Inject
+    ShoppingListRepository shoppingListRepository;
+
+    @Inject
+    MealPlanRepository mealPlanRepository;
+
+    @Inject
+    RecipeRepository recipeRepository;
+
+    @Inject
+    Transactions transactions;
+
+    @Inject
+    MeterRegistry registry;
+
     @Inject
     PantryService pantryService;
 
+    @Inject
+    IngredientSuggestionIndex ingredientSuggestions;
+
+    @ConfigProperty(name = "shopping-list.generation.mode", defaultValue = GENERATION_MODE_PIPELINE)
+    String generationMode;
+
     /**
      * Get all shopping lists ordered by creation date (newest first)
      */
-    public List<ShoppingList> getAllShoppingLists() {
-        List<ShoppingList> lists = ShoppingList.findAllOrderedByCreatedAt();
-        // Generate IDs and update pantry status for items before returning
-        for (ShoppingList list : lists) {
-            list.generateAndSetItemIds();
-            updatePantryStatus(list);
-        }
-        return lists;
+    public Uni<List<ShoppingList>> getAllShoppingLists() {
+        // Read the pantry once for all lists instead of once per list
+        return Uni.combine().all()
+                .unis(shoppingListRepository.findAllOrderedByCreatedAt(), pantryService.getPantryAvailability())
+                .asTuple()
+                .onItem().transform(tuple -> {
+                    List<ShoppingList> lists = tuple.getItem1();
+                    PantryAvailability availability = tuple.getItem2();
+                    // Update pantry status for items before returning
+                    for (ShoppingList list : lists) {
+                        updatePantryStatus(list, availability);
+                    }
+                    return lists;
+                });
     }
 
     /**
-     * Create a new shopping list
+     * Get summaries of all shopping lists (counts instead of items), newest first
      */
-    @Transactional
-    public ShoppingList createShoppingList(ShoppingList shoppingList) throws ValidationException {
-        validateShoppingList(shoppingList);
-
-        shoppingList.prePersist();
-        shoppingList.persist();
+    public Uni<List<ShoppingListSummary>> getShoppingListSummaries() {
+        return shoppingListRepository.findSummaries();
+    }
 
-        if (shoppingList.id == null) {
-            throw new RuntimeException("Failed to persist shopping list");
+    /**
+     * Get one page of shopping lists, newest first
+     * Pantry status is resolved when the items are part of the page
+     */
+    public Uni<Page<ShoppingList>> getShoppingListsPage(PageRequest request) {
+        Uni<Page<ShoppingList>> page = shoppingListRepository.findPage(request);
+        if (!request.includes("items")) {
+            return page;
         }
 
-        return shoppingList;
+        return Uni.combine().all()
+                .unis(page, pantryService.getPantryAvailability())
+                .asTuple()
+                .onItem().transform(tuple -> {
+                    for (ShoppingList list : tuple.getItem1().items()) {
+                        updatePantryStatus(list, tuple.getItem2());
+                    }
+                    return tuple.getItem1();
+                });
     }
 
     /**
-     * Create shopping list from meal plan
+     * Create a new shopping list
      */
-    @Transactional
-    public ShoppingList createShoppingListFromMealPlan(ObjectId mealPlanId, String name) throws ValidationException {
-        MealPlan mealPlan = MealPlan.<MealPlan>findById(mealPlanId).await().indefinitely();
-        if (mealPlan == null) {
-            throw new ValidationException("Meal plan not found");
+    public Uni<ShoppingList> createShoppingList(ShoppingList shoppingList) {
+        try {
+            validateShoppingList(shoppingList);
+        } catch (ValidationException e) {
+            return Uni.createFrom().failure(e);
         }
 
-        ShoppingList shoppingList = new ShoppingList();
-        shoppingList.name = name != null ? name : "Shopping List for " + mealPlan.name;
-        shoppingList.mealPlan = mealPlanId;
-        shoppingList.description = "Generated from meal plan: " + mealPlan.name;
+        shoppingList.generateAndSetItemIds();
+        shoppingList.prePersist();
+        return transactions.withTransaction(() -> shoppingListRepository.persist(shoppingList)
+                .onItem().transform(ignored -> {
+                    if (shoppingList.id == null) {
+                        throw new RuntimeException("Failed to persist shopping list");
+                    }
+                    return shoppingList;
+                }))
+                .onItem().invoke(created -> ingredientSuggestions.record(itemNames(created)));
+    }
 
-        // Collect all ingredients from recipes in the meal plan
-        Map<String, ShoppingList.ShoppingListItem> ingredientMap = new HashMap<>();
+    /**
+     * Create shopping list from meal plan
+     * Ingredients are merged by the aggregation pipeline or in Java, depending on
+     * shopping-list.generation.mode
+     */
+    public Uni<ShoppingList> createShoppingListFromMealPlan(ObjectId mealPlanId, String name) {
+        ShoppingListGenerationEvent event = new ShoppingListGenerationEvent(mealPlanId.toHexString(), generationMode);
+        return event.timing(mealPlanRepository.findById(mealPlanId)
+                .onItem().ifNull().failWith(() -> new ValidationException("Meal plan not found"))
+                .onItem().transformToUni(mealPlan -> mergeIngredients(mealPlan)
+                        .onItem().transformToUni(items -> {
+                            event.mealCount = mealPlan.meals != null ? mealPlan.meals.size() : 0;
+                            ShoppingList shoppingList = new ShoppingList();
+                            shoppingList.name = name != null ? name : "Shopping List for " + mealPlan.name;
+                            shoppingList.mealPlan = mealPlanId;
+                            shoppingList.description = "Generated from meal plan: " + mealPlan.name;
+                            shoppingList.items = items;
+                            return createShoppingList(shoppingList);
+                        })), created -> {
+                    event.shoppingListId = created.id.toHexString();
+                    event.itemCount = created.items.size();
+                });
+    }
 
-        for (MealPlan.MealPlanItem meal : mealPlan.meals) {
-            Recipe recipe = Recipe.<Recipe>findById(meal.recipe).await().indefinitely();
-            if (recipe != null) {
-                for (Recipe.Ingredient ingredient : recipe.ingredients) {
-                    // Calculate required quantity based on servings
-                    double requiredQuantity = ingredient.quantity * meal.servings / recipe.servings;
-
-                    String key = ingredient.name + "|" + ingredient.unit;
-
-                    if (ingredientMap.containsKey(key)) {
-                        // Add to existing ingredient
-                        ShoppingList.ShoppingListItem existingItem = ingredientMap.get(key);
-                        existingItem.quantity += requiredQuantity;
-                    } else {
-                        // Create new ingredient
-                        ShoppingList.ShoppingListItem newItem = new ShoppingList.ShoppingListItem(
-                                ingredient.name,
-                                requiredQuantity,
-                                ingredient.unit,
-                                ingredient.category,
-                                meal.recipe,
-                                ingredient.name);
-                        ingredientMap.put(key, newItem);
-                    }
-                }
-            }
+    /**
+     * Merge the ingredients of all meals in the plan into shopping list items
+     */
+    private Uni<List<ShoppingList.ShoppingListItem>> mergeIngredients(MealPlan mealPlan) {
+        Uni<List<ShoppingList.ShoppingListItem>> items;
+        if (GENERATION_MODE_PIPELINE.equals(generationMode)) {
+            items = shoppingListRepository.mergeIngredients(mealPlan);
+        } else {
+            items = fetchRecipes(mealPlan)
+                    .onItem().transform(recipesById -> ShoppingListIngredientMerger.merge(mealPlan, recipesById));
         }
+        return items.onItem().invoke(merged -> registry
+                .summary(Metrics.SHOPPING_LIST_GENERATED_ITEMS, "mode", generationMode).record(merged.size()));
+    }
 
-        shoppingList.items = new ArrayList<>(ingredientMap.values());
+    /**
+     * Load the distinct recipes used by the meal plan, keyed by ID
+     */
+    private Uni<Map<ObjectId, Recipe>> fetchRecipes(MealPlan mealPlan) {
+        Set<ObjectId> recipeIds = new HashSet<>();
+        for (MealPlan.MealPlanItem meal : mealPlan.meals) {
+            recipeIds.add(meal.recipe);
+        }
+        if (recipeIds.isEmpty()) {
+            return Uni.createFrom().item(Map.of());
+        }
 
-        return createShoppingList(shoppingList);
+        return recipeRepository.findByIds(recipeIds)
+                .onItem().transform(recipes -> {
+                    Map<ObjectId, Recipe> recipesById = new HashMap<>(recipes.size() * 2);
+                    for (Recipe recipe : recipes) {
+                        recipesById.put(recipe.id, recipe);
+                    }
+                    return recipesById;
+                });
     }
 
     /**
      * Get a shopping list by ID
      */
-    public ShoppingList getShoppingListById(ObjectId id) {
-        ShoppingList list = ShoppingList.findById(id);
-        if (list != null) {
-            list.generateAndSetItemIds();
-            updatePantryStatus(list);
-        }
-        return list;
+    public Uni<ShoppingList> getShoppingListById(ObjectId id) {
+        return shoppingListRepository.findById(id)
+                .onItem().ifNotNull().transformToUni(this::withPantryStatus);
     }
 
     /**
      * Update an existing shopping list
+     * Emits null if the shopping list does not exist
      */
-    @Transactional
-    public ShoppingList updateShoppingList(ObjectId id, ShoppingList updatedShoppingList) throws ValidationException {
-        ShoppingList existingList = ShoppingList.findById(id);
-        if (existingList == null) {
-            return null;
+    public Uni<ShoppingList> updateShoppingList(ObjectId id, ShoppingList updatedShoppingList) {
+        try {
+            validateShoppingList(updatedShoppingList);
+        } catch (ValidationException e) {
+            return Uni.createFrom().failure(e);
         }
 
-        validateShoppingList(updatedShoppingList);
-
-        // Update fields
-        existingList.name = updatedShoppingList.name;
-        existingList.description = updatedShoppingList.description;
-        existingList.items = updatedShoppingList.items;
-
-        existingList.preUpdate();
-        existingList.update();
-        existingList.generateAndSetItemIds();
-
-        return existingList;
+        // Set on every attempt, so a retried transaction keeps the names it last replaced
+        AtomicReference<List<String>> previousNames = new AtomicReference<>(List.of());
+        return transactions.withTransaction(() -> shoppingListRepository.findById(id)
+                .onItem().ifNotNull().transformToUni(existingList -> {
+                    previousNames.set(itemNames(existingList));
+                    // Update fields
+                    existingList.name = updatedShoppingList.name;
+                    existingList.description = updatedShoppingList.description;
+                    existingList.items = updatedShoppingList.items;
+                    // Keep IDs sent by the client, only new items get one
+                    existingList.generateAndSetItemIds();
+
+                    existingList.preUpdate();
+                    return shoppingListRepository.update(existingList);
+                }))
+                .onItem().ifNotNull().invoke(updated -> ingredientSuggestions.update(
+                        previousNames.get(), itemNames(updated)));
     }
 
     /**
      * Delete a shopping list by ID
      */
-    @Transactional
-    public boolean deleteShoppingList(ObjectId id) {
-        ShoppingList shoppingList = ShoppingList.findById(id);
-        if (shoppingList == null) {
-            return false;
-        }
-
-        shoppingList.delete();
-        return true;
+    public Uni<Boolean> deleteShoppingList(ObjectId id) {
+        AtomicReference<List<String>> deletedNames = new AtomicReference<>(List.of());
+        return transactions.withTransaction(() -> shoppingListRepository.findById(id)
+                .onItem().transformToUni(shoppingList -> {
+                    if (shoppingList == null) {
+                        return Uni.createFrom().item(false);
+                    }
+                    deletedNames.set(itemNames(shoppingList));
+                    return shoppingListRepository.delete(shoppingList).replaceWith(true);
+                }))
+                .onItem().invoke(deleted -> {
+                    if (deleted) {
+                        ingredientSuggestions.forget(deletedNames.get());
+                    }
+                });
     }
 
     /**
      * Copy an existing shopping list
+     * Emits null if the original shopping list does not exist
      */
-    @Transactional
-    public ShoppingList copyShoppingList(ObjectId id, String newName) throws ValidationException {
-        ShoppingList originalList = ShoppingList.findById(id);
-        if (originalList == null) {
-            return null;
-        }
-
-        ShoppingList copiedList = new ShoppingList();
-        copiedList.name = newName != null ? newName : originalList.name + " (Copy)";
-        copiedList.description = originalList.description;
-        copiedList.mealPlan = originalList.mealPlan;
-
-        // Copy items with reset purchased status
-        copiedList.items = new ArrayList<>();
-        for (ShoppingList.ShoppingListItem item : originalList.items) {
-            ShoppingList.ShoppingListItem copiedItem = new ShoppingList.ShoppingListItem();
-            copiedItem.name = item.name;
-            copiedItem.quantity = item.quantity;
-            copiedItem.unit = item.unit;
-            copiedItem.category = item.category;
-            copiedItem.notes = item.notes;
-            copiedItem.recipe = item.recipe;
-            copiedItem.originalIngredientName = item.originalIngredientName;
-            copiedItem.isPurchased = false; // Reset purchased status
-            
-            copiedList.items.add(copiedItem);
-        }
+    public Uni<ShoppingList> copyShoppingList(ObjectId id, String newName) {
+        return shoppingListRepository.findById(id)
+                .onItem().ifNotNull().transformToUni(originalList -> {
+                    ShoppingList copiedList = new ShoppingList();
+                    copiedList.name = newName != null ? newName : originalList.name + " (Copy)";
+                    copiedList.description = originalList.description;
+                    copiedList.mealPlan = originalList.mealPlan;
+
+                    // Copy items with reset purchased status
+                    copiedList.items = new ArrayList<>();
+                    for (ShoppingList.ShoppingListItem item : originalList.items) {
+                        ShoppingList.ShoppingListItem copiedItem = new ShoppingList.ShoppingListItem();
+                        copiedItem.name = item.name;
+                        copiedItem.quantity = item.quantity;
+                        copiedItem.unit = item.unit;
+                        copiedItem.category = item.category;
+                        copiedItem.notes = item.notes;
+                        copiedItem.recipe = item.recipe;
+                        copiedItem.originalIngredientName = item.originalIngredientName;
+                        copiedItem.isPurchased = false; // Reset purchased status
+
+                        copiedList.items.add(copiedItem);
+                    }
 
-        return createShoppingList(copiedList);
+                    return createShoppingList(copiedList);
+                });
     }
 
     /**
      * Complete shopping list and optionally add items to pantry
+     * The pantry bulk write and the targeted list update commit together in one session transaction
      */
-    @Transactional
-    public ShoppingList completeShoppingList(ObjectId id, boolean addToPantry) throws ValidationException {
-        ShoppingList shoppingList = ShoppingList.findById(id);
-        if (shoppingList == null) {
-            throw new ValidationException("Shopping list not found");
-        }
-
-        if (shoppingList.isCompleted) {
-            throw new ValidationException("Shopping list is already completed");
-        }
+    public Uni<ShoppingList> completeShoppingList(ObjectId id, boolean addToPantry) {
+        return transactions.withTransaction(session -> findShoppingList(session, id)
+                .onItem().transformToUni(shoppingList -> {
+                    if (shoppingList.isCompleted) {
+                        return Uni.createFrom().<ShoppingList>failure(
+                                new ValidationException("Shopping list is already completed"));
+                    }
 
-        shoppingList.markAsCompleted();
+                    shoppingList.markAsCompleted();
 
-        // Add purchased items to pantry if requested
-        if (addToPantry) {
-            for (ShoppingList.ShoppingListItem item : shoppingList.items) {
-                if (item.isPurchased) {
-                    // Try to add to existing pantry item or create new one
-                    boolean increased = pantryService.increaseIngredientQuantity(
-                            item.name,
-                            item.unit,
-                            item.quantity).await().indefinitely();
-
-                    if (!increased) {
-                        // Create new pantry item if doesn't exist
-                        var pantryItem = new org.household.pantry.PantryItem();
-                        pantryItem.name = item.name;
-                        pantryItem.quantity = item.quantity;
-                        pantryItem.unit = item.unit;
-                        pantryItem.category = item.category;
-
-                        pantryService.createPantryItem(pantryItem).await().indefinitely();
+                    // Add purchased items to pantry if requested
+                    List<ShoppingList.ShoppingListItem> purchasedItems = new ArrayList<>();
+                    if (addToPantry) {
+                        for (ShoppingList.ShoppingListItem item : shoppingList.items) {
+                            if (item.isPurchased) {
+                                purchasedItems.add(item);
+                            }
+                        }
                     }
-                }
-            }
-        }
 
-        shoppingList.preUpdate();
-        shoppingList.update();
-        shoppingList.generateAndSetItemIds();
-        updatePantryStatus(shoppingList);
-
-        return shoppingList;
+                    return addItemsToPantry(session, purchasedItems)
+                            .onItem().transformToUni(ignored -> setCompleted(session, id, true));
+                }))
+                .plug(pantryService::invalidatingSnapshot)
+                .onItem().transformToUni(this::withPantryStatus);
     }
 
     /**
      * Toggle item purchased status
+     * Writes only the toggled flag, or the completion status when the toggle completes or reopens
+     * the list, instead of rewriting the document
      */
-    @Transactional
-    public ShoppingList toggleItemPurchased(ObjectId shoppingListId, int itemIndex) throws ValidationException {
-        ShoppingList shoppingList = ShoppingList.findById(shoppingListId);
-        if (shoppingList == null) {
-            throw new ValidationException("Shopping list not found");
-        }
-
-        if (itemIndex < 0 || itemIndex >= shoppingList.items.size()) {
-            throw new ValidationException("Invalid item index");
-        }
-
-        ShoppingList.ShoppingListItem item = shoppingList.items.get(itemIndex);
-        item.togglePurchased();
+    public Uni<ShoppingList> toggleItemPurchased(ObjectId shoppingListId, int itemIndex) {
+        return transactions.withTransaction(session -> findShoppingList(session, shoppingListId)
+                .onItem().transformToUni(shoppingList -> {
+                    if (itemIndex < 0 || itemIndex >= shoppingList.items.size()) {
+                        return Uni.createFrom().<ShoppingList>failure(new ValidationException("Invalid item index"));
+                    }
 
-        // Update shopping list completion status based on all items
-        if (shoppingList.areAllItemsPurchased() && !shoppingList.isCompleted) {
-            shoppingList.markAsCompleted();
-        } else if (!shoppingList.areAllItemsPurchased() && shoppingList.isCompleted) {
-            shoppingList.markAsUncompleted();
-        }
+                    ShoppingList.ShoppingListItem item = shoppingList.items.get(itemIndex);
+                    item.togglePurchased();
 
-        shoppingList.preUpdate();
-        shoppingList.update();
-        shoppingList.generateAndSetItemIds();
-        updatePantryStatus(shoppingList);
+                    // Update shopping list completion status based on all items
+                    if (shoppingList.areAllItemsPurchased() && !shoppingList.isCompleted) {
+                        return setCompleted(session, shoppingListId, true);
+                    } else if (!shoppingList.areAllItemsPurchased() && shoppingList.isCompleted) {
+                        return setCompleted(session, shoppingListId, false);
+                    }
 
-        return shoppingList;
+                    return shoppingListRepository.setItemPurchasedAt(session, shoppingListId, itemIndex,
+                                    item.isPurchased)
+                            .onItem().ifNull().failWith(() -> new ValidationException("Invalid item index"));
+                }))
+                .onItem().transformToUni(this::withPantryStatus);
     }
 
     /**
      * Find shopping lists by meal plan
      */
-    public List<ShoppingList> findShoppingListsByMealPlan(ObjectId mealPlanId) {
-        return ShoppingList.findByMealPlan(mealPlanId);
+    public Uni<List<ShoppingList>> findShoppingListsByMealPlan(ObjectId mealPlanId) {
+        return shoppingListRepository.findByMealPlan(mealPlanId);
     }
 
     /**
      * Find completed shopping lists
      */
-    public List<ShoppingList> findCompletedShoppingLists() {
-        return ShoppingList.findCompleted();
+    public Uni<List<ShoppingList>> findCompletedShoppingLists() {
+        return shoppingListRepository.findCompleted();
     }
 
     /**
      * Find pending shopping lists
      */
-    public List<ShoppingList> findPendingShoppingLists() {
-        return ShoppingList.findPending();
+    public Uni<List<ShoppingList>> findPendingShoppingLists() {
+        return shoppingListRepository.findPending();
     }
 
     /**
@@ -317,228 +394,222 @@ public class ShoppingListService {
 
     /**
      * Toggle item purchased status by item ID
+     * Sets the flag on the single matching array element instead of rewriting the document; the
+     * flag and the pantry write commit together in one session transaction
      */
-    @Transactional
-    public ShoppingList toggleItemPurchasedById(ObjectId shoppingListId, String itemId, boolean purchased,
-            boolean autoAddToPantry) throws ValidationException {
-        ShoppingList shoppingList = ShoppingList.findById(shoppingListId);
-        if (shoppingList == null) {
-            throw new ValidationException("Shopping list not found");
-        }
-
-        // Generate IDs first if not already set
-        shoppingList.generateAndSetItemIds();
-        
-        // Find item by ID
-        ShoppingList.ShoppingListItem targetItem = null;
-        for (ShoppingList.ShoppingListItem item : shoppingList.items) {
-            if (item.id != null && item.id.equals(itemId)) {
-                targetItem = item;
-                break;
-            }
-        }
-
-        if (targetItem == null) {
-            throw new ValidationException("Item not found in shopping list");
-        }
-
-        // Update the item's purchased status
-        targetItem.isPurchased = purchased;
-
-        // If purchased is true and autoAddToPantry flag is set, add item to pantry
-        if (purchased && autoAddToPantry) {
-            boolean increased = pantryService.increaseIngredientQuantity(
-                    targetItem.name,
-                    targetItem.unit,
-                    targetItem.quantity).await().indefinitely();
-
-            if (!increased) {
-                // Create new pantry item if doesn't exist
-                var pantryItem = new org.household.pantry.PantryItem();
-                pantryItem.name = targetItem.name;
-                pantryItem.quantity = targetItem.quantity;
-                pantryItem.unit = targetItem.unit;
-                pantryItem.category = targetItem.category;
-
-                pantryService.createPantryItem(pantryItem).await().indefinitely();
-            }
-        }
-
-        shoppingList.preUpdate();
-        shoppingList.update();
-        shoppingList.generateAndSetItemIds();
-        updatePantryStatus(shoppingList);
-
-        return shoppingList;
+    public Uni<ShoppingList> toggleItemPurchasedById(ObjectId shoppingListId, String itemId, boolean purchased,
+            boolean autoAddToPantry) {
+        return transactions.withTransaction(session -> shoppingListRepository
+                        .setItemPurchased(session, shoppingListId, itemId, purchased)
+                        .onItem().ifNull().switchTo(() -> itemNotFound(session, shoppingListId))
+                        .onItem().transformToUni(updatedList -> {
+                            // If purchased is true and autoAddToPantry flag is set, add item to pantry
+                            List<ShoppingList.ShoppingListItem> pantryItems = purchased && autoAddToPantry
+                                    ? findItems(updatedList, List.of(itemId))
+                                    : List.of();
+
+                            return addItemsToPantry(session, pantryItems).replaceWith(updatedList);
+                        }))
+                .plug(pantryService::invalidatingSnapshot)
+                .onItem().transformToUni(this::withPantryStatus);
     }
 
     /**
      * Remove item from shopping list by item ID
+     * Pulls the single matching array element instead of rewriting the document, in a session
+     * transaction with the read that finds the removed item's name for ingredient suggestions
      */
-    @Transactional
-    public ShoppingList removeItemById(ObjectId shoppingListId, String itemId) throws ValidationException {
-        ShoppingList shoppingList = ShoppingList.findById(shoppingListId);
-        if (shoppingList == null) {
-            throw new ValidationException("Shopping list not found");
-        }
-
-        // Generate IDs first if not already set
-        shoppingList.generateAndSetItemIds();
-        
-        // Remove item by comparing IDs
-        boolean removed = shoppingList.items.removeIf(item -> 
-            item.id != null && item.id.equals(itemId)
-        );
-
-        if (!removed) {
-            throw new ValidationException("Item not found in shopping list");
-        }
-
-        shoppingList.preUpdate();
-        shoppingList.update();
-        shoppingList.generateAndSetItemIds();
-        updatePantryStatus(shoppingList);
-
-        return shoppingList;
+    public Uni<ShoppingList> removeItemById(ObjectId shoppingListId, String itemId) {
+        AtomicReference<String> removedName = new AtomicReference<>();
+        return transactions.withTransaction(session -> findShoppingList(session, shoppingListId)
+                        .onItem().transformToUni(shoppingList -> {
+                            List<ShoppingList.ShoppingListItem> items = findItems(shoppingList, List.of(itemId));
+                            removedName.set(items.isEmpty() ? null : items.get(0).name);
+                            return shoppingListRepository.removeItem(session, shoppingListId, itemId);
+                        })
+                        .onItem().ifNull().switchTo(() -> itemNotFound(session, shoppingListId)))
+                .onItem().invoke(ignored -> ingredientSuggestions.forget(
+                        Collections.singletonList(removedName.get())))
+                .onItem().transformToUni(this::withPantryStatus);
     }
 
     /**
      * Transfer items to pantry
+     * Items selected by ID are marked as purchased with a targeted update, committed together
+     * with the pantry write in one session transaction
      */
-    @Transactional
-    public ShoppingList transferItemsToPantry(ObjectId shoppingListId, List<String> itemIds)
-            throws ValidationException {
-        ShoppingList shoppingList = ShoppingList.findById(shoppingListId);
-        if (shoppingList == null) {
-            throw new ValidationException("Shopping list not found");
-        }
-
-        // Generate IDs first if not already set
-        shoppingList.generateAndSetItemIds();
-        
-        // Determine which items to transfer
-        List<ShoppingList.ShoppingListItem> itemsToTransfer = new ArrayList<>();
-
-        if (itemIds != null && !itemIds.isEmpty()) {
-            // Transfer specific items
-            for (ShoppingList.ShoppingListItem item : shoppingList.items) {
-                if (item.id != null && itemIds.contains(item.id)) {
-                    itemsToTransfer.add(item);
-                }
-            }
-        } else {
-            // Transfer all purchased items
-            for (ShoppingList.ShoppingListItem item : shoppingList.items) {
-                if (item.isPurchased) {
-                    itemsToTransfer.add(item);
-                }
-            }
-        }
-
-        // Add all selected items to pantry
-        for (ShoppingList.ShoppingListItem item : itemsToTransfer) {
-            boolean increased = pantryService.increaseIngredientQuantity(
-                    item.name,
-                    item.unit,
-                    item.quantity).await().indefinitely();
-
-            if (!increased) {
-                // Create new pantry item if doesn't exist
-                var pantryItem = new org.household.pantry.PantryItem();
-                pantryItem.name = item.name;
-                pantryItem.quantity = item.quantity;
-                pantryItem.unit = item.unit;
-                pantryItem.category = item.category;
-
-                pantryService.createPantryItem(pantryItem).await().indefinitely();
-            }
-        }
-
-        // Mark all transferred items as purchased if they were transferred by ID
-        // selection
-        if (itemIds != null && !itemIds.isEmpty()) {
-            for (ShoppingList.ShoppingListItem item : shoppingList.items) {
-                if (item.id != null && itemIds.contains(item.id)) {
-                    item.isPurchased = true;
-                }
-            }
-        }
+    public Uni<ShoppingList> transferItemsToPantry(ObjectId shoppingListId, List<String> itemIds) {
+        boolean selectedById = itemIds != null && !itemIds.isEmpty();
+        PantryTransferEvent event = new PantryTransferEvent(shoppingListId.toHexString(), selectedById);
+
+        return event.timing(transactions.withTransaction(session -> findShoppingList(session, shoppingListId)
+                        .onItem().transformToUni(shoppingList -> {
+                            // Determine which items to transfer
+                            List<ShoppingList.ShoppingListItem> itemsToTransfer;
+                            if (selectedById) {
+                                // Transfer specific items
+                                itemsToTransfer = findItems(shoppingList, itemIds);
+                            } else {
+                                // Transfer all purchased items
+                                itemsToTransfer = new ArrayList<>();
+                                for (ShoppingList.ShoppingListItem item : shoppingList.items) {
+                                    if (item.isPurchased) {
+                                        itemsToTransfer.add(item);
+                                    }
+                                }
+                            }
+
+                            // Add all selected items to pantry
+                            event.itemCount = itemsToTransfer.size();
+                            return addItemsToPantry(session, itemsToTransfer)
+                                    .onItem().transformToUni(ignored -> {
+                                        if (!selectedById) {
+                                            return Uni.createFrom().item(shoppingList);
+                                        }
+
+                                        // Mark all transferred items as purchased if they were transferred
+                                        // by ID selection
+                                        return markItemsPurchased(session, shoppingListId, itemIds);
+                                    });
+                        }))
+                .plug(pantryService::invalidatingSnapshot)
+                .onItem().transformToUni(this::withPantryStatus));
+    }
 
-        shoppingList.preUpdate();
-        shoppingList.update();
-        shoppingList.generateAndSetItemIds();
-        updatePantryStatus(shoppingList);
+    /**
+     * Set isPurchased on every item with one of the given IDs
+     */
+    private Uni<ShoppingList> markItemsPurchased(ClientSession session, ObjectId shoppingListId,
+            List<String> itemIds) {
+        return shoppingListRepository.markItemsPurchased(session, shoppingListId, itemIds)
+                .onItem().ifNull().failWith(() -> new ValidationException("Shopping list not found"));
+    }
 
-        return shoppingList;
+    /**
+     * Mark the list completed or uncompleted with a targeted update
+     */
+    private Uni<ShoppingList> setCompleted(ClientSession session, ObjectId shoppingListId, boolean completed) {
+        return shoppingListRepository.setCompleted(session, shoppingListId, completed)
+                .onItem().ifNull().failWith(() -> new ValidationException("Shopping list not found"));
     }
 
     /**
      * Add item to shopping list
+     * Pushes the new element instead of rewriting the document
      */
-    @Transactional
-    public ShoppingList addItemToShoppingList(ObjectId shoppingListId,
-            org.household.shoppinglist.ShoppingListResource.AddItemData itemData) throws ValidationException {
-        ShoppingList shoppingList = ShoppingList.findById(shoppingListId);
-        if (shoppingList == null) {
-            throw new ValidationException("Shopping list not found");
-        }
-
-        // Check if item is in pantry (could be used for inPantry field if added to
-        // ShoppingListItem)
-        List<org.household.pantry.PantryItem> pantryItems = pantryService.getAllPantryItems().await().indefinitely();
-        for (org.household.pantry.PantryItem pantryItem : pantryItems) {
-            if (pantryItem.name.toLowerCase().equals(itemData.ingredient.toLowerCase()) &&
-                    pantryItem.unit.toLowerCase().equals(itemData.unit.toLowerCase()) &&
-                    pantryItem.quantity >= itemData.quantity) {
-                // Item is available in pantry with sufficient quantity
-                break;
-            }
-        }
-
+    public Uni<ShoppingList> addItemToShoppingList(ObjectId shoppingListId,
+            ShoppingListResource.AddItemData itemData) {
         // Create new shopping list item
         ShoppingList.ShoppingListItem newItem = new ShoppingList.ShoppingListItem();
+        newItem.id = ShoppingList.newItemId();
         newItem.name = itemData.ingredient;
         newItem.quantity = itemData.quantity;
         newItem.unit = itemData.unit;
         newItem.category = itemData.category;
         newItem.notes = itemData.notes;
         newItem.isPurchased = false;
-        // Note: inPantry is not a field in the current ShoppingListItem, but we could
-        // add it if needed
+        // inPantry is resolved by updatePantryStatus below
 
-        // Add the new item
-        shoppingList.items.add(newItem);
+        return shoppingListRepository.addItem(shoppingListId, newItem)
+                .onItem().ifNull().failWith(() -> new ValidationException("Shopping list not found"))
+                .onItem().invoke(ignored -> ingredientSuggestions.record(List.of(newItem.name)))
+                .onItem().transformToUni(this::withPantryStatus);
+    }
 
-        shoppingList.preUpdate();
-        shoppingList.update();
-        shoppingList.generateAndSetItemIds();
-        updatePantryStatus(shoppingList);
+    /**
+     * Item names of a list, as counted for ingredient suggestions
+     */
+    private static List<String> itemNames(ShoppingList shoppingList) {
+        if (shoppingList.items == null) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(shoppingList.items.size());
+        for (ShoppingList.ShoppingListItem item : shoppingList.items) {
+            names.add(item.name);
+        }
+        return names;
+    }
 
-        return shoppingList;
+    /**
+     * Items of the shopping list with one of the given IDs, in list order
+     */
+    private List<ShoppingList.ShoppingListItem> findItems(ShoppingList shoppingList, List<String> itemIds) {
+        List<ShoppingList.ShoppingListItem> items = new ArrayList<>();
+        for (ShoppingList.ShoppingListItem item : shoppingList.items) {
+            if (item.id != null && itemIds.contains(item.id)) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Fail with the right message when a targeted item update inside the given session's
+     * transaction matched nothing
+     */
+    private Uni<ShoppingList> itemNotFound(ClientSession session, ObjectId shoppingListId) {
+        return findShoppingList(session, shoppingListId)
+                .onItem().failWith(() -> new ValidationException("Item not found in shopping list"));
+    }
+
+    /**
+     * Find a shopping list by ID inside the given session's transaction, failing with a
+     * ValidationException if it does not exist
+     */
+    private Uni<ShoppingList> findShoppingList(ClientSession session, ObjectId id) {
+        return shoppingListRepository.findById(session, id)
+                .onItem().ifNull().failWith(() -> new ValidationException("Shopping list not found"));
+    }
+
+    /**
+     * Add shopping list items to the pantry in a single bulk write
+     * Existing pantry items are increased and missing ones are created; the write joins the
+     * given session's transaction (no session when null)
+     */
+    private Uni<Void> addItemsToPantry(ClientSession session, List<ShoppingList.ShoppingListItem> items) {
+        List<PantryQuantityChange> changes = new ArrayList<>(items.size());
+        for (ShoppingList.ShoppingListItem item : items) {
+            changes.add(PantryQuantityChange.increase(item.name, item.unit, item.quantity, item.category));
+        }
+        return pantryService.applyQuantityChanges(session, changes);
+    }
+
+    /**
+     * Resolve inPantry status for all items of a shopping list
+     */
+    private Uni<ShoppingList> withPantryStatus(ShoppingList shoppingList) {
+        return pantryService.getPantryAvailability()
+                .onItem().transform(availability -> {
+                    updatePantryStatus(shoppingList, availability);
+                    return shoppingList;
+                });
     }
 
     /**
      * Update inPantry status for all items in the shopping list
      * Checks if items are available in pantry with sufficient quantity
      */
-    private void updatePantryStatus(ShoppingList shoppingList) {
-        // Get all pantry items
-        List<org.household.pantry.PantryItem> pantryItems = 
-            pantryService.getAllPantryItems().await().indefinitely();
-        
-        // Check each shopping list item against pantry
+    static void updatePantryStatus(ShoppingList shoppingList, PantryAvailability availability) {
+        PantryStatusEvent event = new PantryStatusEvent();
+        event.begin();
+
+        int inPantry = 0;
         for (ShoppingList.ShoppingListItem item : shoppingList.items) {
-            item.inPantry = false; // Reset first
-            
-            for (org.household.pantry.PantryItem pantryItem : pantryItems) {
-                if (pantryItem.name.equalsIgnoreCase(item.name) &&
-                    pantryItem.unit.equalsIgnoreCase(item.unit) &&
-                    pantryItem.quantity >= item.quantity) {
-                    item.inPantry = true;
-                    break;
-                }
+            item.inPantry = availability.isAvailable(item.name, item.unit, item.quantity);
+            if (item.inPantry) {
+                inPantry++;
             }
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.shoppingListId = shoppingList.id != null ? shoppingList.id.toHexString() : null;
+            event.itemCount = shoppingList.items.size();
+            event.inPantryCount = inPantry;
+            event.pantrySize = availability.size();
+            event.succeeded = true;
+            event.commit();
+        }
     }
 
 }
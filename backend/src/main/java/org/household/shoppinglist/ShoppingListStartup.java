@@ -0,0 +1,79 @@
+package org.household.shoppinglist;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.conversions.Bson;
+import org.household.common.DataStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Prepares the shoppinglists collection at startup
+ * Creates the index on stored item IDs and backfills IDs for items written before they were persisted
+ */
+@ApplicationScoped
+@UnlessBuildProperty(name = DataStore.PROPERTY, stringValue = DataStore.MEMORY, enableIfMissing = true)
+@Slf4j
+public class ShoppingListStartup {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    void onStart(@Observes StartupEvent event) {
+        createIndexes()
+                .onItem().transformToUni(ignored -> backfillItemIds())
+                .onFailure().invoke(e -> log.error("Failed to prepare shopping list collection", e))
+                .onFailure().recoverWithNull()
+                .await().indefinitely();
+    }
+
+    private Uni<String> createIndexes() {
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .createIndex(Indexes.ascending("items." + ShoppingList.ITEM_ID_FIELD),
+                        new IndexOptions().name("items_id"));
+    }
+
+    /**
+     * Assign IDs to items that don't have one, writing the lists back in batches
+     */
+    private Uni<Void> backfillItemIds() {
+        Bson missingItemIds = Filters.elemMatch("items",
+                Filters.exists(ShoppingList.ITEM_ID_FIELD, false));
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .find(missingItemIds)
+                .group().intoLists().of(BACKFILL_BATCH_SIZE)
+                .onItem().transformToUniAndConcatenate(this::writeItemIds)
+                .collect().with(Collectors.summingInt(Integer::intValue))
+                .onItem().invoke(count -> {
+                    if (count > 0) {
+                        log.info("Backfilled item IDs for {} shopping lists", count);
+                    }
+                })
+                .replaceWithVoid();
+    }
+
+    private Uni<Integer> writeItemIds(List<ShoppingList> lists) {
+        List<WriteModel<ShoppingList>> writes = new ArrayList<>(lists.size());
+        for (ShoppingList list : lists) {
+            list.generateAndSetItemIds();
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", list.id), Updates.set("items", list.items)));
+        }
+
+        return ShoppingList.<ShoppingList>mongoCollection()
+                .bulkWrite(writes, new BulkWriteOptions().ordered(false))
+                .replaceWith(lists.size());
+    }
+}
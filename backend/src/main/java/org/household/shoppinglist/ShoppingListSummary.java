@@ -0,0 +1,30 @@
+package org.household.shoppinglist;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.household.common.BsonDates;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shopping list without its items, for list sidebars
+ * Item counts are computed by the database, see {@link ShoppingList#findSummaries()}
+ */
+public record ShoppingListSummary(ObjectId id, String name, String description, ObjectId mealPlan,
+                                  Boolean isCompleted, LocalDateTime completedAt, LocalDateTime createdAt,
+                                  LocalDateTime updatedAt, int totalItems, int purchasedCount) {
+
+    static ShoppingListSummary fromDocument(Document document) {
+        return new ShoppingListSummary(
+                document.getObjectId("_id"),
+                document.getString("name"),
+                document.getString("description"),
+                document.getObjectId("mealPlan"),
+                document.getBoolean("isCompleted", false),
+                BsonDates.toLocalDateTime(document.getDate("completedAt")),
+                BsonDates.toLocalDateTime(document.getDate("createdAt")),
+                BsonDates.toLocalDateTime(document.getDate("updatedAt")),
+                document.getInteger("totalItems", 0),
+                document.getInteger("purchasedCount", 0));
+    }
+}
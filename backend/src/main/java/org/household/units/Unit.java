@@ -1,28 +1,154 @@
 package org.household.units;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Known units with their dimension and conversion factor
+ * Quantities are converted to a fixed-point long in the base unit of their dimension
+ * (thousandths of a gram, millilitre, piece or package), so quantities in units of the same
+ * dimension can be added and compared exactly
+ */
 @Getter
 public enum Unit {
-    PIECE("piece"),
+    PIECE("piece", Dimension.COUNT, 1_000, "pieces"),
 
-    G("g"),
+    G("g", Dimension.MASS, 1_000),
 
-    KG("kg"),
+    KG("kg", Dimension.MASS, 1_000_000),
 
-    ML("ml"),
+    ML("ml", Dimension.VOLUME, 1_000),
 
-    L("l"),
+    L("l", Dimension.VOLUME, 1_000_000),
 
-    TABLESPOON("tablespoon"),
+    // US customary measures
+    TABLESPOON("tablespoon", Dimension.VOLUME, 14_787, "tablespoons"),
 
-    TEASPOON("teaspoon"),
+    TEASPOON("teaspoon", Dimension.VOLUME, 4_929, "teaspoons"),
 
-    CUP("cup"),
+    CUP("cup", Dimension.VOLUME, 236_588, "cups"),
 
-    PACKAGE("package"),
+    PACKAGE("package", Dimension.PACKAGE, 1_000, "packages"),
     ;
+
+    /**
+     * Fixed-point scale of base quantities, also the factor used for units not listed here
+     */
+    public static final long FIXED_POINT_SCALE = 1_000;
+
+    private static final Map<String, Unit> UNITS_BY_SPELLING = new HashMap<>();
+
+    static {
+        for (Unit unit : values()) {
+            UNITS_BY_SPELLING.put(unit.value, unit);
+            for (String plural : unit.plurals) {
+                UNITS_BY_SPELLING.put(plural, unit);
+            }
+            UNITS_BY_SPELLING.put(unit.name().toLowerCase(Locale.ROOT), unit);
+        }
+    }
+
     private final String value;
+
+    private final Dimension dimension;
+
+    /**
+     * Base quantity of one of this unit, in thousandths of the dimension's base unit
+     */
+    private final long factor;
+
+    /**
+     * Accepted plural spellings, none for symbols such as g or ml
+     */
+    @Getter(AccessLevel.NONE)
+    private final List<String> plurals;
+
+    Unit(String value, Dimension dimension, long factor, String... plurals) {
+        this.value = value;
+        this.dimension = dimension;
+        this.factor = factor;
+        this.plurals = List.of(plurals);
+    }
+
+    /**
+     * What a unit measures; units of the same dimension convert into each other
+     */
+    @RequiredArgsConstructor
+    @Getter
+    public enum Dimension {
+        COUNT("piece"),
+
+        MASS("g"),
+
+        VOLUME("ml"),
+
+        PACKAGE("package"),
+        ;
+
+        private final String baseUnit;
+    }
+
+    /**
+     * All recognized lowercase spellings of known units (value, plural and enum name)
+     */
+    public static Map<String, Unit> spellings() {
+        return Collections.unmodifiableMap(UNITS_BY_SPELLING);
+    }
+
+    /**
+     * Known unit for a spelling (in any case, singular or plural), or null for free-form units
+     */
+    public static Unit fromString(String unit) {
+        if (unit == null) {
+            return null;
+        }
+        return UNITS_BY_SPELLING.get(unit.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Canonical spelling of a unit
+     * Known units (in any case, singular or plural) map to their value, anything else is trimmed and lowercased
+     */
+    public static String canonical(String unit) {
+        Unit known = fromString(unit);
+        return known != null ? known.value : unit.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Key shared by all units that convert into each other: the base unit of a known unit's
+     * dimension, or the canonical spelling of a free-form unit
+     */
+    public static String dimensionKey(String unit) {
+        Unit known = fromString(unit);
+        return known != null ? known.dimension.baseUnit : canonical(unit);
+    }
+
+    /**
+     * Base quantity of one of the given unit; free-form units are their own base unit
+     */
+    public static long factorOf(String unit) {
+        Unit known = fromString(unit);
+        return known != null ? known.factor : FIXED_POINT_SCALE;
+    }
+
+    /**
+     * Convert a quantity to a fixed-point base quantity
+     */
+    public static long toBase(double quantity, String unit) {
+        return Math.round(quantity * factorOf(unit));
+    }
+
+    /**
+     * Convert a fixed-point base quantity back to a quantity in the given unit
+     */
+    public static double fromBase(long baseQuantity, String unit) {
+        return (double) baseQuantity / factorOf(unit);
+    }
 }
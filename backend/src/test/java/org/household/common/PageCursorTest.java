@@ -0,0 +1,55 @@
+package org.household.common;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PageCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() throws ValidationException {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000), new ObjectId());
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void keepsMissingCreatedAt() throws ValidationException {
+        PageCursor cursor = new PageCursor(null, new ObjectId());
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(ValidationException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(ValidationException.class, () -> PageCursor.decode(encoded("2024-03-01T12:00")));
+        assertThrows(ValidationException.class, () -> PageCursor.decode(encoded("2024-03-01T12:00|nope")));
+        assertThrows(ValidationException.class,
+                () -> PageCursor.decode(encoded("yesterday|" + new ObjectId().toHexString())));
+    }
+
+    @Test
+    void pageRequestAcceptsOnlyAllowedFields() throws ValidationException {
+        Set<String> allowed = Set.of("id", "name", "createdAt");
+
+        PageRequest request = PageRequest.of(null, null, " name ,,id", allowed);
+        assertEquals(Set.of("name", "id"), request.fields());
+        assertEquals(PageRequest.DEFAULT_LIMIT, request.limit());
+
+        assertThrows(ValidationException.class, () -> PageRequest.of(null, null, "name,$where", allowed));
+        assertThrows(ValidationException.class,
+                () -> PageRequest.of(null, PageRequest.MAX_LIMIT + 1, null, allowed));
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,33 @@
+package org.household.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchPatternsTest {
+
+    @Test
+    void containsMatchesInputLiterally() {
+        assertEquals("chick", SearchPatterns.contains("  Chick "));
+        assertEquals("a\\.b\\*\\(c\\)", SearchPatterns.contains("a.b*(c)"));
+    }
+
+    @Test
+    void prefixIsAnchoredAndLiteral() {
+        assertEquals("^pie", SearchPatterns.prefix(" Pie "));
+        assertEquals("^1\\+1 \\[v2\\]", SearchPatterns.prefix("1+1 [V2]"));
+        assertTrue(Pattern.compile(SearchPatterns.prefix("Pie")).matcher("pie crust").find());
+        assertFalse(Pattern.compile(SearchPatterns.prefix("Pie")).matcher("apple pie").find());
+    }
+
+    @Test
+    void textTermsDropOperators() {
+        assertEquals("chicken curry", SearchPatterns.textTerms("\"chicken curry\""));
+        assertEquals("stir fry tofu", SearchPatterns.textTerms("stir-fry -tofu"));
+        assertEquals("", SearchPatterns.textTerms(" \" - "));
+    }
+}
@@ -0,0 +1,116 @@
+package org.household.ingredient;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class IngredientSuggestionIndexTest {
+
+    @Test
+    void suggestsMostUsedNamesForPrefix() {
+        IngredientSuggestionIndex index = index(Map.of("Tomato", 3L, "Tofu", 5L, "Salt", 9L));
+
+        assertEquals(List.of("Tofu", "Tomato"), names(index.suggest("TO", 10)));
+        assertEquals(List.of("Tofu"), names(index.suggest("to", 1)));
+        assertEquals(List.of(), index.suggest("x", 10));
+    }
+
+    @Test
+    void recordsUsesUnderNormalizedName() {
+        IngredientSuggestionIndex index = index(Map.of("Tomato", 1L));
+
+        index.record(List.of(" tomato ", "TOMATO"));
+
+        assertEquals(List.of(new IngredientSuggestion("Tomato", 3)), index.suggest("tom", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void updateCountsOnlyTheDifference() {
+        IngredientSuggestionIndex index = index(Map.of("Flour", 2L, "Sugar", 2L));
+
+        index.update(List.of("Flour", "Sugar"), List.of("flour", "Butter"));
+
+        assertEquals(List.of(new IngredientSuggestion("Flour", 2)), index.suggest("f", 10));
+        assertEquals(List.of(new IngredientSuggestion("Sugar", 1)), index.suggest("s", 10));
+        assertEquals(List.of(new IngredientSuggestion("Butter", 1)), index.suggest("b", 10));
+    }
+
+    @Test
+    void forgetRemovesNamesNoLongerUsed() {
+        IngredientSuggestionIndex index = index(Map.of("Basil", 1L, "Bay leaf", 2L));
+
+        index.forget(List.of("basil"));
+
+        assertEquals(List.of("Bay leaf"), names(index.suggest("ba", 10)));
+        assertEquals(List.of(), index.suggest("bas", 10));
+        assertEquals(1, index.size());
+
+        // Forgetting a name the index never saw changes nothing
+        index.forget(List.of("Saffron"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void refillsFullTopListWhenANameLosesUses() {
+        Map<String, Long> frequencies = new HashMap<>();
+        for (int i = 0; i < IngredientSuggestionIndex.MAX_SUGGESTIONS; i++) {
+            frequencies.put("Pepper " + i, 10L);
+        }
+        frequencies.put("Pepper x", 5L);
+        IngredientSuggestionIndex index = index(frequencies);
+        assertFalse(names(index.suggest("p", 20)).contains("Pepper x"));
+
+        // Pepper 0 drops below Pepper x, which was left out of the full lists
+        List<String> uses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            uses.add("Pepper 0");
+        }
+        index.forget(uses);
+
+        List<String> suggested = names(index.suggest("p", 20));
+        assertEquals(IngredientSuggestionIndex.MAX_SUGGESTIONS, suggested.size());
+        assertEquals("Pepper x", suggested.get(IngredientSuggestionIndex.MAX_SUGGESTIONS - 1));
+        assertEquals(List.of("Pepper 0"), names(index.suggest("pepper 0", 10)));
+    }
+
+    @Test
+    void refillTakesNamesFromOtherBranchesAndTheNameEndingAtTheNode() {
+        Map<String, Long> frequencies = new HashMap<>();
+        for (int i = 0; i < IngredientSuggestionIndex.MAX_SUGGESTIONS; i++) {
+            frequencies.put("Salt " + i, 10L);
+        }
+        frequencies.put("Salt", 4L);
+        frequencies.put("Sage", 6L);
+        IngredientSuggestionIndex index = index(frequencies);
+
+        index.forget(List.of("Salt 0", "Salt 0", "Salt 0", "Salt 0", "Salt 0",
+                "Salt 0", "Salt 0", "Salt 0", "Salt 0", "Salt 0"));
+
+        List<String> underS = names(index.suggest("s", 20));
+        assertEquals(IngredientSuggestionIndex.MAX_SUGGESTIONS, underS.size());
+        assertEquals("Sage", underS.get(IngredientSuggestionIndex.MAX_SUGGESTIONS - 1));
+        assertFalse(underS.contains("Salt 0"));
+
+        List<String> underSalt = names(index.suggest("salt", 20));
+        assertEquals("Salt", underSalt.get(IngredientSuggestionIndex.MAX_SUGGESTIONS - 1));
+        assertEquals(List.of(), index.suggest("salt 0", 10));
+        assertEquals(List.of("Salt 1"), names(index.suggest("salt 1", 10)));
+    }
+
+    private static IngredientSuggestionIndex index(Map<String, Long> frequencies) {
+        IngredientSuggestionIndex index = new IngredientSuggestionIndex();
+        index.rebuild(frequencies);
+        return index;
+    }
+
+    private static List<String> names(List<IngredientSuggestion> suggestions) {
+        return suggestions.stream().map(IngredientSuggestion::name).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package org.household.loadtest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test of the household scenarios against the in-memory store
+ * Excluded from the default build; run it with
+ * {@code ./mvnw test -Ploadtest -Dloadtest.label=$(git rev-parse --short HEAD)}
+ * The report is written to target/loadtest/latency-{label}.csv. Pass an earlier report as
+ * -Dloadtest.baseline=... to print the p99 change per endpoint
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@Tag("loadtest")
+public class HouseholdLoadTest {
+
+    private static final long SEED = 42;
+
+    private final int households = Integer.getInteger("loadtest.households", 8);
+    private final int iterations = Integer.getInteger("loadtest.iterations", 25);
+    private final int warmupIterations = Integer.getInteger("loadtest.warmup", 5);
+    private final int recipes = Integer.getInteger("loadtest.recipes", 50);
+
+    @Test
+    void householdWeek() throws Exception {
+        List<String> recipeIds = HouseholdScenario.createRecipes(recipes, SEED);
+
+        // Warm up the JIT and the in-memory indexes, the numbers are thrown away
+        run(new LatencyRecorder(), recipeIds, warmupIterations, -1);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        run(recorder, recipeIds, iterations, SEED);
+
+        String label = System.getProperty("loadtest.label", "local");
+        Path report = Path.of("target", "loadtest", "latency-" + label + ".csv");
+        String baselinePath = System.getProperty("loadtest.baseline");
+        List<String> baseline = baselinePath != null ? Files.readAllLines(Path.of(baselinePath)) : List.of();
+
+        System.out.printf("%d households x %d iterations (%s)%n%s", households, iterations, label,
+                recorder.table(baseline));
+        recorder.writeCsv(report);
+
+        assertTrue(recorder.totalCount() > 0, "No requests were recorded");
+        assertEquals(0, recorder.serverErrorCount(), "Server errors during load test, see " + report);
+    }
+
+    /**
+     * Run the scenario from every household in parallel; each household gets its own seed
+     */
+    private void run(LatencyRecorder recorder, List<String> recipeIds, int iterations, long seed)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(households);
+        try {
+            List<Future<?>> runs = new ArrayList<>(households);
+            for (int household = 0; household < households; household++) {
+                long householdSeed = seed * 31 + household;
+                runs.add(executor.submit(() -> {
+                    HouseholdScenario scenario = new HouseholdScenario(recorder, recipeIds, householdSeed);
+                    for (int i = 0; i < iterations; i++) {
+                        scenario.run();
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.household.loadtest;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * One household's week, driven through the REST API
+ * Builds a weekly meal plan, generates its shopping list, ticks items off, moves them to the pantry
+ * and cooks part of the plan. Every call is timed under its endpoint template
+ */
+public class HouseholdScenario {
+
+    private static final String[] INGREDIENTS = {
+            "flour", "sugar", "butter", "milk", "eggs", "rice", "pasta", "tomato", "onion", "garlic",
+            "chicken", "beef", "carrot", "potato", "cheese", "olive oil", "salt", "pepper", "basil", "lemon"
+    };
+    private static final String[] UNITS = {"g", "kg", "ml", "l", "pcs"};
+    private static final String[] MEAL_TYPES = {"breakfast", "lunch", "dinner"};
+    private static final int DAYS = 7;
+
+    private final LatencyRecorder recorder;
+    private final List<String> recipeIds;
+    private final Random random;
+
+    /**
+     * @param seed fixes the recipes, servings and items a household picks, so runs are repeatable
+     */
+    public HouseholdScenario(LatencyRecorder recorder, List<String> recipeIds, long seed) {
+        this.recorder = recorder;
+        this.recipeIds = recipeIds;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Create the shared recipe catalog; these calls are not timed
+     */
+    public static List<String> createRecipes(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Map<String, Object>> ingredients = new ArrayList<>();
+            int ingredientCount = 3 + random.nextInt(6);
+            for (int j = 0; j < ingredientCount; j++) {
+                Map<String, Object> ingredient = new LinkedHashMap<>();
+                ingredient.put("name", INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+                ingredient.put("quantity", 1 + random.nextInt(500));
+                ingredient.put("unit", UNITS[random.nextInt(UNITS.length)]);
+                ingredients.add(ingredient);
+            }
+
+            Map<String, Object> recipe = new LinkedHashMap<>();
+            recipe.put("name", "Load test recipe " + i);
+            recipe.put("ingredients", ingredients);
+            recipe.put("instructions", List.of("Prepare", "Cook", "Serve"));
+            recipe.put("prepTime", 10);
+            recipe.put("cookTime", 20);
+            recipe.put("servings", 2 + random.nextInt(4));
+
+            ids.add(given().contentType(ContentType.JSON).body(recipe)
+                    .post("/api/recipes")
+                    .then().statusCode(201)
+                    .extract().path("data.recipe.id"));
+        }
+        return ids;
+    }
+
+    public void run() {
+        LocalDate startDate = LocalDate.now().plusDays(random.nextInt(28));
+        String mealPlanId = createWeeklyPlan(startDate);
+        if (mealPlanId == null) {
+            return;
+        }
+
+        timed("GET /api/mealPlans/{id}", () -> given().get("/api/mealPlans/{id}", mealPlanId));
+        timed("GET /api/mealPlans/{id}?format=normalized",
+                () -> given().queryParam("format", "normalized").get("/api/mealPlans/{id}", mealPlanId));
+
+        Response created = timed("POST /api/shoppingList/fromMealPlan", () -> given()
+                .queryParam("mealPlanId", mealPlanId)
+                .post("/api/shoppingList/fromMealPlan"));
+        if (created.statusCode() == 201) {
+            String listId = created.path("data.shoppingList.id");
+            List<String> itemIds = created.path("data.shoppingList.items.id");
+            shop(listId, itemIds);
+        }
+
+        // Cook the first half of the week
+        for (int mealIndex = 0; mealIndex < DAYS * MEAL_TYPES.length / 2; mealIndex++) {
+            int index = mealIndex;
+            timed("POST /api/mealPlans/{id}/meals/{mealIndex}/complete", () -> given()
+                    .contentType(ContentType.JSON)
+                    .post("/api/mealPlans/{id}/meals/{mealIndex}/complete", mealPlanId, index));
+        }
+
+        timed("GET /api/mealPlans?view=summary", () -> given().queryParam("view", "summary").get("/api/mealPlans"));
+        timed("GET /api/shoppingList?view=summary",
+                () -> given().queryParam("view", "summary").get("/api/shoppingList"));
+        timed("GET /api/pantry", () -> given().get("/api/pantry"));
+    }
+
+    private String createWeeklyPlan(LocalDate startDate) {
+        List<Map<String, Object>> meals = new ArrayList<>(DAYS * MEAL_TYPES.length);
+        for (int day = 0; day < DAYS; day++) {
+            for (String mealType : MEAL_TYPES) {
+                Map<String, Object> meal = new LinkedHashMap<>();
+                meal.put("recipe", recipeIds.get(random.nextInt(recipeIds.size())));
+                meal.put("date", startDate.plusDays(day).toString());
+                meal.put("mealType", mealType);
+                meal.put("servings", 1 + random.nextInt(4));
+                meals.add(meal);
+            }
+        }
+
+        Map<String, Object> mealPlan = new LinkedHashMap<>();
+        mealPlan.put("name", "Week of " + startDate);
+        mealPlan.put("startDate", startDate.toString());
+        mealPlan.put("endDate", startDate.plusDays(DAYS - 1).toString());
+        mealPlan.put("meals", meals);
+
+        Response response = timed("POST /api/mealPlans",
+                () -> given().contentType(ContentType.JSON).body(mealPlan).post("/api/mealPlans"));
+        return response.statusCode() == 201 ? response.path("data.mealPlan.id") : null;
+    }
+
+    /**
+     * Tick off most items one by one, then move everything purchased to the pantry
+     */
+    private void shop(String listId, List<String> itemIds) {
+        for (String itemId : itemIds) {
+            if (random.nextInt(10) == 0) {
+                continue;
+            }
+            timed("PATCH /api/shoppingList/{id} toggle-purchased", () -> given()
+                    .contentType(ContentType.JSON)
+                    .body(Map.of("operation", "toggle-purchased", "itemId", itemId, "purchased", true))
+                    .patch("/api/shoppingList/{id}", listId));
+        }
+
+        timed("PATCH /api/shoppingList/{id} transfer-to-pantry", () -> given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("operation", "transfer-to-pantry"))
+                .patch("/api/shoppingList/{id}", listId));
+        timed("GET /api/shoppingList/{id}", () -> given().get("/api/shoppingList/{id}", listId));
+    }
+
+    private Response timed(String endpoint, Supplier<Response> call) {
+        long start = System.nanoTime();
+        Response response = call.get();
+        recorder.record(endpoint, System.nanoTime() - start, response.statusCode());
+        return response;
+    }
+}
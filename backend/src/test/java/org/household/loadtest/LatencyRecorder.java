@@ -0,0 +1,121 @@
+package org.household.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per endpoint, in microseconds
+ * Endpoints are named by method and path template (for example "PATCH /api/shoppingList/{id}") so
+ * reports from different runs line up
+ */
+public class LatencyRecorder {
+
+    static final String CSV_HEADER = "endpoint,count,errors,p50_us,p99_us,p999_us,max_us";
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> serverErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Record one call; statuses of 400 and above count as errors, 500 and above also as server errors
+     */
+    public void record(String endpoint, long elapsedNanos, int status) {
+        histograms.computeIfAbsent(endpoint, ignored -> new ConcurrentHistogram(3))
+                .recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        if (status >= 400) {
+            errors.computeIfAbsent(endpoint, ignored -> new LongAdder()).increment();
+        }
+        if (status >= 500) {
+            serverErrors.computeIfAbsent(endpoint, ignored -> new LongAdder()).increment();
+        }
+    }
+
+    public long totalCount() {
+        long count = 0;
+        for (Histogram histogram : histograms.values()) {
+            count += histogram.getTotalCount();
+        }
+        return count;
+    }
+
+    public long serverErrorCount() {
+        long count = 0;
+        for (LongAdder adder : serverErrors.values()) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    /**
+     * One CSV line per endpoint, sorted by endpoint
+     */
+    public List<String> csvLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            LongAdder errorCount = errors.get(entry.getKey());
+            lines.add(String.join(",",
+                    entry.getKey(),
+                    Long.toString(histogram.getTotalCount()),
+                    Long.toString(errorCount != null ? errorCount.sum() : 0),
+                    Long.toString(histogram.getValueAtPercentile(50)),
+                    Long.toString(histogram.getValueAtPercentile(99)),
+                    Long.toString(histogram.getValueAtPercentile(99.9)),
+                    Long.toString(histogram.getMaxValue())));
+        }
+        return lines;
+    }
+
+    /**
+     * Human readable table, with the p99 change against a baseline report when one is given
+     *
+     * @param baseline lines of an earlier CSV report, or an empty list
+     */
+    public String table(List<String> baseline) {
+        Map<String, Long> baselineP99 = new HashMap<>();
+        for (String line : baseline) {
+            String[] columns = line.split(",");
+            if (columns.length == 7 && !line.equals(CSV_HEADER)) {
+                baselineP99.put(columns[0], Long.parseLong(columns[4]));
+            }
+        }
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-48s %8s %7s %10s %10s %10s %10s%s%n",
+                "endpoint", "count", "errors", "p50 us", "p99 us", "p999 us", "max us",
+                baselineP99.isEmpty() ? "" : "  p99 vs baseline"));
+        List<String> lines = csvLines();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            String change = "";
+            Long previous = baselineP99.get(columns[0]);
+            if (previous != null && previous > 0) {
+                change = String.format(Locale.ROOT, "  %+.1f%%", (Long.parseLong(columns[4]) - previous) * 100.0 / previous);
+            }
+            table.append(String.format(Locale.ROOT, "%-48s %8s %7s %10s %10s %10s %10s%s%n",
+                    columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], columns[6], change));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Write the CSV report, creating parent directories as needed
+     */
+    public void writeCsv(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, csvLines());
+    }
+}
@@ -0,0 +1,14 @@
+package org.household.loadtest;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * Runs the application with the loadtest config profile, which keeps data in memory instead of MongoDB
+ */
+public class LoadTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public String getConfigProfile() {
+        return "loadtest";
+    }
+}
@@ -0,0 +1,54 @@
+package org.household.pantry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PantryAvailabilityTest {
+
+    @Test
+    void checksQuantitiesAcrossUnitsOfOneDimension() {
+        PantryAvailability pantry = PantryAvailability.of(List.of(item("Flour", 1.0, "kg")));
+
+        assertTrue(pantry.isAvailable(" flour ", "g", 1000.0));
+        assertFalse(pantry.isAvailable("Flour", "g", 1001.0));
+        assertFalse(pantry.isAvailable("Flour", "ml", 1.0));
+        assertTrue(pantry.isAvailable("Flour", "kg", null));
+        assertFalse(pantry.isAvailable(null, "kg", null));
+    }
+
+    @Test
+    void largestItemWinsWhenItemsShareAKey() {
+        PantryAvailability pantry = PantryAvailability.of(List.of(
+                item("Milk", 0.5, "l"),
+                item("milk", 750.0, "ml")));
+
+        assertEquals(1, pantry.size());
+        assertTrue(pantry.hasBaseQuantity(PantryAvailability.key("Milk", "ml"), 750_000L));
+        assertFalse(pantry.isAvailable("Milk", "l", 1.0));
+    }
+
+    @Test
+    void skipsIncompleteItems() {
+        PantryAvailability pantry = PantryAvailability.of(List.of(
+                item("Eggs", 6.0, "pieces"),
+                item("Salt", null, "g"),
+                item(null, 1.0, "g")));
+
+        assertEquals(Set.of(PantryAvailability.key("eggs", "piece")), pantry.keys());
+        assertEquals(0, PantryAvailability.of(null).size());
+    }
+
+    private static PantryItem item(String name, Double quantity, String unit) {
+        PantryItem item = new PantryItem();
+        item.name = name;
+        item.quantity = quantity;
+        item.unit = unit;
+        return item;
+    }
+}
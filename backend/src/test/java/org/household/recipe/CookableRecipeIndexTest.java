@@ -0,0 +1,131 @@
+package org.household.recipe;
+
+import org.bson.types.ObjectId;
+import org.household.pantry.PantryAvailability;
+import org.household.pantry.PantryItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class CookableRecipeIndexTest {
+
+    @Test
+    void ranksByCoverageAndListsMissingIngredients() {
+        Recipe omelette = recipe("Omelette", 1,
+                new Recipe.Ingredient("Eggs", 2.0, "piece"),
+                new Recipe.Ingredient("Butter", 10.0, "g"));
+        Recipe cake = recipe("Cake", 1,
+                new Recipe.Ingredient("Eggs", 3.0, "piece"),
+                new Recipe.Ingredient("Flour", 200.0, "g"),
+                new Recipe.Ingredient("Sugar", 100.0, "g"));
+        CookableRecipeIndex index = index(cake, omelette);
+
+        List<CookableRecipe> ranked = index.rank(pantry(
+                pantryItem("eggs", 6.0, "pieces"),
+                pantryItem("butter", 0.25, "kg"),
+                pantryItem("flour", 100.0, "g")), null, 10);
+
+        assertEquals(List.of("Omelette", "Cake"), ranked.stream().map(cookable -> cookable.recipe().name).toList());
+        assertEquals(1.0, ranked.get(0).coverage());
+        assertEquals(1, ranked.get(1).availableIngredients());
+        assertEquals(List.of("Flour", "Sugar"), ranked.get(1).missingIngredients());
+    }
+
+    @Test
+    void scalesRequiredQuantitiesToServings() {
+        Recipe pancakes = recipe("Pancakes", 2, new Recipe.Ingredient("Milk", 500.0, "ml"));
+        CookableRecipeIndex index = index(pancakes);
+        PantryAvailability pantry = pantry(pantryItem("Milk", 1.0, "l"));
+
+        assertEquals(1.0, index.rank(pantry, 4, 10).get(0).coverage());
+        assertEquals(0.0, index.rank(pantry, 6, 10).get(0).coverage());
+    }
+
+    @Test
+    void sumsIngredientsListedTwice() {
+        Recipe bread = recipe("Bread", 1,
+                new Recipe.Ingredient("Flour", 300.0, "g"),
+                new Recipe.Ingredient("flour", 0.3, "kg"));
+        CookableRecipeIndex index = index(bread);
+
+        CookableRecipe cookable = index.rank(pantry(pantryItem("Flour", 500.0, "g")), null, 10).get(0);
+        assertEquals(1, cookable.totalIngredients());
+        assertEquals(List.of("Flour"), cookable.missingIngredients());
+    }
+
+    @Test
+    void reusesIngredientIdsNoRecipeUses() {
+        Recipe salad = recipe("Salad", 1,
+                new Recipe.Ingredient("Lettuce", 1.0, "piece"),
+                new Recipe.Ingredient("Tomato", 2.0, "piece"));
+        Recipe soup = recipe("Soup", 1, new Recipe.Ingredient("Tomato", 4.0, "piece"));
+        Recipe toast = recipe("Toast", 1, new Recipe.Ingredient("Bread", 1.0, "piece"));
+        CookableRecipeIndex index = index(salad, soup, toast);
+        assertEquals(3, index.ingredientIdSpan());
+
+        // Lettuce frees its ID, tomato is still used by the soup
+        index.delete(salad.id);
+        assertEquals(3, index.ingredientIdSpan());
+
+        Recipe porridge = recipe("Porridge", 1, new Recipe.Ingredient("Oats", 50.0, "g"));
+        index.put(porridge);
+        assertEquals(3, index.ingredientIdSpan());
+
+        // Freeing the highest ID shrinks the bitsets
+        index.delete(toast.id);
+        assertEquals(2, index.ingredientIdSpan());
+
+        List<CookableRecipe> ranked = index.rank(pantry(pantryItem("Oats", 1.0, "kg")), null, 1);
+        assertEquals("Porridge", ranked.get(0).recipe().name);
+        assertEquals(1.0, ranked.get(0).coverage());
+    }
+
+    @Test
+    void capsResultsAndReturnsCopies() {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < CookableRecipeIndex.MAX_RESULTS + 5; i++) {
+            recipes.add(recipe("Toast " + i, 1, new Recipe.Ingredient("Bread", 1.0, "piece")));
+        }
+        CookableRecipeIndex index = new CookableRecipeIndex();
+        index.rebuild(recipes);
+
+        assertEquals(CookableRecipeIndex.MAX_RESULTS, index.rank(pantry(), null, Integer.MAX_VALUE).size());
+        assertEquals(List.of(), index.rank(pantry(), null, 0));
+
+        Recipe recipe = recipe("Toast", 1, new Recipe.Ingredient("Bread", 1.0, "piece"));
+        Recipe ranked = index(recipe).rank(pantry(), null, 1).get(0).recipe();
+        assertNotSame(recipe, ranked);
+        assertEquals(recipe.id, ranked.id);
+    }
+
+    private static CookableRecipeIndex index(Recipe... recipes) {
+        CookableRecipeIndex index = new CookableRecipeIndex();
+        index.rebuild(List.of(recipes));
+        return index;
+    }
+
+    private static Recipe recipe(String name, int servings, Recipe.Ingredient... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.id = new ObjectId();
+        recipe.name = name;
+        recipe.servings = servings;
+        recipe.ingredients = new ArrayList<>(List.of(ingredients));
+        return recipe;
+    }
+
+    private static PantryItem pantryItem(String name, double quantity, String unit) {
+        PantryItem item = new PantryItem();
+        item.name = name;
+        item.quantity = quantity;
+        item.unit = unit;
+        return item;
+    }
+
+    private static PantryAvailability pantry(PantryItem... items) {
+        return PantryAvailability.of(List.of(items));
+    }
+}
@@ -0,0 +1,104 @@
+package org.household.recipe;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipeSearchIndexTest {
+
+    @Test
+    void tokenizesIntoLowercasedWords() {
+        assertEquals(List.of("stir", "fry", "2", "eggs"), RecipeSearchIndex.tokenize("Stir-fry (2 EGGS)"));
+        assertEquals(List.of(), RecipeSearchIndex.tokenize(null));
+    }
+
+    @Test
+    void ranksNameMatchesAboveInstructionMatches() {
+        Recipe soup = recipe("Tomato soup", List.of("Simmer the stock"));
+        Recipe salad = recipe("Green salad", List.of("Add a tomato"));
+        RecipeSearchIndex index = index(salad, soup);
+
+        assertEquals(List.of("Tomato soup", "Green salad"), names(index.search("tomato", 10)));
+    }
+
+    @Test
+    void onlyTheLastTermMatchesAsPrefix() {
+        RecipeSearchIndex index = index(recipe("Chicken curry", List.of()), recipe("Roast chicken", List.of()));
+
+        assertEquals(List.of("Chicken curry"), names(index.search("curry chick", 10)));
+        assertEquals(List.of(), index.search("chick curry", 10));
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        RecipeSearchIndex index = index(recipe("Chicken curry", List.of()), recipe("Beef curry", List.of()));
+
+        assertEquals(List.of("Beef curry"), names(index.search("beef curry", 10)));
+    }
+
+    @Test
+    void putReplacesAndDeleteRemoves() {
+        Recipe recipe = recipe("Pancakes", List.of());
+        RecipeSearchIndex index = index(recipe);
+
+        Recipe renamed = recipe.copy();
+        renamed.name = "Waffles";
+        index.put(renamed);
+        assertEquals(List.of(), index.search("pancakes", 10));
+        assertEquals(List.of("Waffles"), names(index.search("waffles", 10)));
+
+        index.delete(recipe.id);
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.search("waffles", 10));
+    }
+
+    @Test
+    void returnsCopiesOfIndexedRecipes() {
+        Recipe recipe = recipe("Omelette", List.of());
+        RecipeSearchIndex index = index(recipe);
+
+        Recipe found = index.search("omelette", 10).get(0);
+        assertNotSame(recipe, found);
+        found.name = "Changed";
+        recipe.name = "Changed too";
+
+        assertEquals(List.of("Omelette"), names(index.search("omelette", 10)));
+    }
+
+    @Test
+    void capsResultsAtMaxResults() {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < RecipeSearchIndex.MAX_RESULTS + 5; i++) {
+            recipes.add(recipe("Bread " + i, List.of()));
+        }
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.rebuild(recipes);
+
+        assertEquals(RecipeSearchIndex.MAX_RESULTS, index.search("bread", Integer.MAX_VALUE).size());
+        assertTrue(index.search("bread", 0).isEmpty());
+    }
+
+    private static RecipeSearchIndex index(Recipe... recipes) {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.rebuild(List.of(recipes));
+        return index;
+    }
+
+    private static Recipe recipe(String name, List<String> instructions) {
+        Recipe recipe = new Recipe();
+        recipe.id = new ObjectId();
+        recipe.name = name;
+        recipe.instructions = new ArrayList<>(instructions);
+        return recipe;
+    }
+
+    private static List<String> names(List<Recipe> recipes) {
+        return recipes.stream().map(recipe -> recipe.name).toList();
+    }
+}
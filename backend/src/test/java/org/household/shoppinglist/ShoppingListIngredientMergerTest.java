@@ -0,0 +1,101 @@
+package org.household.shoppinglist;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.household.mealplan.MealPlan;
+import org.household.recipe.Recipe;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShoppingListIngredientMergerTest {
+
+    @Test
+    void mergesSameIngredientAcrossMealsInUnitOfFirstUse() {
+        Recipe bread = recipe(2, new Recipe.Ingredient("Flour", 500.0, "g"));
+        Recipe pizza = recipe(1, new Recipe.Ingredient(" flour ", 1.0, "kg"));
+        MealPlan mealPlan = mealPlan(meal(bread, 4), meal(pizza, 1));
+
+        List<ShoppingList.ShoppingListItem> items = ShoppingListIngredientMerger.merge(mealPlan,
+                Map.of(bread.id, bread, pizza.id, pizza));
+
+        assertEquals(1, items.size());
+        ShoppingList.ShoppingListItem flour = items.get(0);
+        assertEquals("Flour", flour.name);
+        assertEquals("g", flour.unit);
+        assertEquals(2000.0, flour.quantity);
+        assertEquals(bread.id, flour.recipe);
+    }
+
+    @Test
+    void keepsUnitDimensionsApartInOrderOfFirstUse() {
+        Recipe pancakes = recipe(1,
+                new Recipe.Ingredient("Milk", 0.5, "l"),
+                new Recipe.Ingredient("Eggs", 2.0, "piece"));
+        Recipe custard = recipe(1,
+                new Recipe.Ingredient("milk", 2.0, "pieces"),
+                new Recipe.Ingredient("Milk", 250.0, "ml"));
+        MealPlan mealPlan = mealPlan(meal(pancakes, 1), meal(custard, 1));
+
+        List<ShoppingList.ShoppingListItem> items = ShoppingListIngredientMerger.merge(mealPlan,
+                Map.of(pancakes.id, pancakes, custard.id, custard));
+
+        assertEquals(List.of("Milk", "Eggs", "milk"), items.stream().map(item -> item.name).toList());
+        assertEquals(0.75, items.get(0).quantity);
+        assertEquals("l", items.get(0).unit);
+        assertEquals(2.0, items.get(2).quantity);
+    }
+
+    @Test
+    void skipsMealsWithUnknownRecipes() {
+        Recipe salad = recipe(2, new Recipe.Ingredient("Lettuce", 1.0, "piece"));
+        Recipe missing = recipe(1, new Recipe.Ingredient("Caviar", 1.0, "package"));
+        MealPlan mealPlan = mealPlan(meal(missing, 1), meal(salad, 1));
+
+        List<ShoppingList.ShoppingListItem> items = ShoppingListIngredientMerger.merge(mealPlan,
+                Map.of(salad.id, salad));
+
+        assertEquals(1, items.size());
+        assertEquals("Lettuce", items.get(0).name);
+        assertEquals(0.5, items.get(0).quantity);
+    }
+
+    @Test
+    void aggregationSortsByUseBeforeGrouping() {
+        List<String> stages = new ArrayList<>();
+        for (Bson stage : ShoppingListAggregation.pipeline(new ObjectId())) {
+            stages.add(stage.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry())
+                    .getFirstKey());
+        }
+
+        int group = stages.indexOf("$group");
+        assertTrue(group > 0);
+        assertEquals("$sort", stages.get(group - 1));
+    }
+
+    private static Recipe recipe(int servings, Recipe.Ingredient... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.id = new ObjectId();
+        recipe.servings = servings;
+        recipe.ingredients = List.of(ingredients);
+        return recipe;
+    }
+
+    private static MealPlan.MealPlanItem meal(Recipe recipe, int servings) {
+        return new MealPlan.MealPlanItem(recipe.id, LocalDate.now(), MealPlan.MealType.dinner, servings);
+    }
+
+    private static MealPlan mealPlan(MealPlan.MealPlanItem... meals) {
+        MealPlan mealPlan = new MealPlan();
+        mealPlan.meals = List.of(meals);
+        return mealPlan;
+    }
+}
@@ -0,0 +1,47 @@
+package org.household.units;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class UnitTest {
+
+    @Test
+    void acceptsListedPluralsOnly() {
+        assertEquals(Unit.PIECE, Unit.fromString("pieces"));
+        assertEquals(Unit.CUP, Unit.fromString(" Cups "));
+        assertEquals(Unit.TABLESPOON, Unit.fromString("TABLESPOONS"));
+
+        assertNull(Unit.fromString("gs"));
+        assertNull(Unit.fromString("ls"));
+        assertNull(Unit.fromString("mls"));
+        assertNull(Unit.fromString("kgs"));
+    }
+
+    @Test
+    void canonicalSpellingOfKnownAndFreeFormUnits() {
+        assertEquals("package", Unit.canonical("Packages"));
+        assertEquals("pinch", Unit.canonical(" Pinch "));
+        assertEquals("gs", Unit.canonical("gs"));
+    }
+
+    @Test
+    void dimensionKeysGroupConvertibleUnits() {
+        assertEquals("g", Unit.dimensionKey("kg"));
+        assertEquals("ml", Unit.dimensionKey("L"));
+        assertEquals("ml", Unit.dimensionKey("teaspoons"));
+        assertEquals("piece", Unit.dimensionKey("pieces"));
+        assertEquals("pinch", Unit.dimensionKey("Pinch"));
+    }
+
+    @Test
+    void convertsToAndFromFixedPointBaseQuantities() {
+        assertEquals(1_500_000L, Unit.toBase(1.5, "kg"));
+        assertEquals(1_500_000L, Unit.toBase(1500, "g"));
+        assertEquals(250L, Unit.toBase(0.25, "pinch"));
+        assertEquals(0.5, Unit.fromBase(500_000L, "l"));
+        assertEquals(2.0, Unit.fromBase(473_176L, "cups"));
+        assertEquals(3.0, Unit.fromBase(Unit.toBase(3.0, "pieces"), "piece"));
+    }
+}
@@ -0,0 +1,167 @@
+package org.household.benchmarks;
+
+import org.bson.types.ObjectId;
+import org.household.mealplan.MealPlan;
+import org.household.pantry.PantryItem;
+import org.household.recipe.Recipe;
+import org.household.shoppinglist.ShoppingList;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic entities for the benchmarks
+ * Ingredient names come from a fixed vocabulary so pantries, recipes and shopping lists
+ * overlap the way real data does; the same seed always produces the same data
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 42L;
+
+    private static final String[] UNITS = {"g", "kg", "ml", "l", "piece", "cup", "tablespoon", "package"};
+
+    private static final String[] CATEGORIES = {"produce", "dairy", "meat", "pantry", "spices", "frozen"};
+
+    private static final MealPlan.MealType[] MEAL_TYPES = MealPlan.MealType.values();
+
+    private final Random random;
+
+    private final int vocabularySize;
+
+    /**
+     * @param vocabularySize number of distinct ingredient names
+     */
+    public SyntheticData(int vocabularySize) {
+        this.random = new Random(SEED);
+        this.vocabularySize = vocabularySize;
+    }
+
+    /**
+     * Pantry items with their match keys and base quantities set, as loaded from the collection
+     */
+    public List<PantryItem> pantryItems(int count) {
+        List<PantryItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PantryItem item = new PantryItem();
+            item.id = new ObjectId();
+            item.name = ingredientName(i % vocabularySize);
+            item.unit = unit();
+            item.quantity = quantity();
+            item.category = category();
+            item.prePersist();
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Shopping list with the given number of items drawn from the vocabulary, item IDs set
+     */
+    public ShoppingList shoppingList(int itemCount) {
+        ShoppingList list = new ShoppingList();
+        list.id = new ObjectId();
+        list.name = "Shopping list";
+        list.items = shoppingListItems(itemCount);
+        list.generateAndSetItemIds();
+        list.createdAt = LocalDateTime.now();
+        list.updatedAt = list.createdAt;
+        return list;
+    }
+
+    /**
+     * Shopping list items without IDs
+     */
+    public List<ShoppingList.ShoppingListItem> shoppingListItems(int count) {
+        List<ShoppingList.ShoppingListItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new ShoppingList.ShoppingListItem(randomIngredientName(), quantity(), unit(), category()));
+        }
+        return items;
+    }
+
+    /**
+     * Recipes with the given number of ingredients each
+     */
+    public List<Recipe> recipes(int count, int ingredientsPerRecipe) {
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Recipe recipe = new Recipe();
+            recipe.id = new ObjectId();
+            recipe.name = "Recipe " + i;
+            recipe.description = "Synthetic recipe " + i;
+            recipe.servings = 1 + random.nextInt(6);
+            recipe.prepTime = random.nextInt(60);
+            recipe.cookTime = random.nextInt(120);
+            recipe.imageUrl = "https://example.com/recipes/" + i + ".jpg";
+            for (int j = 0; j < ingredientsPerRecipe; j++) {
+                recipe.ingredients.add(new Recipe.Ingredient(randomIngredientName(), quantity(), unit(),
+                        category()));
+            }
+            for (int j = 0; j < 5; j++) {
+                recipe.instructions.add("Step " + (j + 1) + " of recipe " + i);
+            }
+            recipe.tags.add(category());
+            recipe.createdAt = LocalDateTime.now();
+            recipe.updatedAt = recipe.createdAt;
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+
+    /**
+     * Recipes keyed by ID, as returned by the batched recipe lookup of the services
+     */
+    public static Map<ObjectId, Recipe> byId(List<Recipe> recipes) {
+        Map<ObjectId, Recipe> recipesById = new HashMap<>(recipes.size() * 2);
+        for (Recipe recipe : recipes) {
+            recipesById.put(recipe.id, recipe);
+        }
+        return recipesById;
+    }
+
+    /**
+     * Meal plan with the given number of meals, each using one of the recipes
+     */
+    public MealPlan mealPlan(int mealCount, List<Recipe> recipes) {
+        MealPlan mealPlan = new MealPlan();
+        mealPlan.id = new ObjectId();
+        mealPlan.name = "Meal plan";
+        mealPlan.startDate = LocalDate.of(2026, 1, 5);
+        mealPlan.endDate = mealPlan.startDate.plusDays(Math.max(1, mealCount / MEAL_TYPES.length));
+        for (int i = 0; i < mealCount; i++) {
+            Recipe recipe = recipes.get(random.nextInt(recipes.size()));
+            mealPlan.meals.add(new MealPlan.MealPlanItem(recipe.id,
+                    mealPlan.startDate.plusDays(i / MEAL_TYPES.length),
+                    MEAL_TYPES[i % MEAL_TYPES.length],
+                    1 + random.nextInt(6)));
+        }
+        mealPlan.createdAt = LocalDateTime.now();
+        mealPlan.updatedAt = mealPlan.createdAt;
+        return mealPlan;
+    }
+
+    private String randomIngredientName() {
+        return ingredientName(random.nextInt(vocabularySize));
+    }
+
+    private static String ingredientName(int index) {
+        return "Ingredient " + index;
+    }
+
+    private String unit() {
+        return UNITS[random.nextInt(UNITS.length)];
+    }
+
+    private String category() {
+        return CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    private double quantity() {
+        return 1 + random.nextInt(500) / 4.0;
+    }
+}
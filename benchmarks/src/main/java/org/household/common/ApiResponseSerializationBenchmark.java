@@ -0,0 +1,93 @@
+package org.household.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.bson.types.ObjectId;
+import org.household.benchmarks.SyntheticData;
+import org.household.mealplan.MealPlan;
+import org.household.mealplan.MealPlanWithRecipes;
+import org.household.recipe.Recipe;
+import org.household.shoppinglist.ShoppingList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of typical ApiResponse payloads
+ * The mapper is configured like the application's: ISO dates and ObjectIds as hex strings
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    int listCount;
+
+    @Param({"20"})
+    int itemsPerList;
+
+    private ObjectMapper objectMapper;
+
+    private ApiResponse shoppingLists;
+
+    private ApiResponse mealPlans;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new SimpleModule().addSerializer(ObjectId.class, ToStringSerializer.instance))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        SyntheticData data = new SyntheticData(200);
+        List<ShoppingList> lists = new ArrayList<>(listCount);
+        for (int i = 0; i < listCount; i++) {
+            lists.add(data.shoppingList(itemsPerList));
+        }
+        shoppingLists = ApiResponse.success("shoppingLists", lists);
+
+        List<Recipe> recipes = data.recipes(20, 10);
+        Map<ObjectId, Recipe> recipesById = SyntheticData.byId(recipes);
+        List<MealPlanWithRecipes> plans = new ArrayList<>(listCount);
+        for (int i = 0; i < listCount; i++) {
+            MealPlan mealPlan = data.mealPlan(21, recipes);
+            MealPlanWithRecipes plan = new MealPlanWithRecipes(mealPlan);
+            for (MealPlan.MealPlanItem meal : mealPlan.meals) {
+                plan.meals.add(new MealPlanWithRecipes.MealPlanItemWithRecipe(recipesById.get(meal.recipe), meal));
+            }
+            plans.add(plan);
+        }
+        mealPlans = ApiResponse.success("mealPlans", plans);
+    }
+
+    @Benchmark
+    public byte[] shoppingLists() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shoppingLists);
+    }
+
+    @Benchmark
+    public byte[] mealPlans() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mealPlans);
+    }
+}
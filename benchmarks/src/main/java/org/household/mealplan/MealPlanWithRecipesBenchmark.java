@@ -0,0 +1,64 @@
+package org.household.mealplan;
+
+import org.bson.types.ObjectId;
+import org.household.benchmarks.SyntheticData;
+import org.household.recipe.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of meal plan responses from already loaded recipes
+ * The embedded format copies a recipe into every meal using it, the normalized one once per plan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MealPlanWithRecipesBenchmark {
+
+    @Param({"7", "21", "84"})
+    int mealCount;
+
+    @Param({"5", "20"})
+    int recipeCount;
+
+    @Param({"10"})
+    int ingredientsPerRecipe;
+
+    private MealPlan mealPlan;
+
+    private Map<ObjectId, Recipe> recipesById;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(200);
+        List<Recipe> recipes = data.recipes(recipeCount, ingredientsPerRecipe);
+        mealPlan = data.mealPlan(mealCount, recipes);
+        recipesById = SyntheticData.byId(recipes);
+    }
+
+    @Benchmark
+    public MealPlanWithRecipes embedded() {
+        return MealPlanService.toMealPlanWithRecipes(mealPlan, recipesById);
+    }
+
+    @Benchmark
+    public NormalizedMealPlan normalized() {
+        return MealPlanService.toNormalizedMealPlan(mealPlan, recipesById);
+    }
+}
@@ -0,0 +1,60 @@
+package org.household.shoppinglist;
+
+import org.bson.types.ObjectId;
+import org.household.benchmarks.SyntheticData;
+import org.household.mealplan.MealPlan;
+import org.household.recipe.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingredient merge of createShoppingListFromMealPlan in the "java" generation mode
+ * The vocabulary size controls how many ingredients of different recipes merge into one item
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngredientMergeBenchmark {
+
+    @Param({"7", "21", "84"})
+    int mealCount;
+
+    @Param({"10"})
+    int ingredientsPerRecipe;
+
+    @Param({"50", "500"})
+    int vocabularySize;
+
+    private MealPlan mealPlan;
+
+    private Map<ObjectId, Recipe> recipesById;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(vocabularySize);
+        List<Recipe> recipes = data.recipes(mealCount, ingredientsPerRecipe);
+        mealPlan = data.mealPlan(mealCount, recipes);
+        recipesById = SyntheticData.byId(recipes);
+    }
+
+    @Benchmark
+    public List<ShoppingList.ShoppingListItem> merge() {
+        return ShoppingListIngredientMerger.merge(mealPlan, recipesById);
+    }
+}
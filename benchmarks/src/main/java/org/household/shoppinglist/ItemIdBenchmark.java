@@ -0,0 +1,54 @@
+package org.household.shoppinglist;
+
+import org.household.benchmarks.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item ID generation of ShoppingList.generateAndSetItemIds
+ * IDs are cleared before every invocation so each one generates all of them; the smallest
+ * list size is left out because per-invocation setup would dominate its timing
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemIdBenchmark {
+
+    @Param({"100", "1000"})
+    int listSize;
+
+    private ShoppingList shoppingList;
+
+    @Setup
+    public void setUp() {
+        shoppingList = new SyntheticData(listSize).shoppingList(listSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearItemIds() {
+        for (ShoppingList.ShoppingListItem item : shoppingList.items) {
+            item.id = null;
+        }
+    }
+
+    @Benchmark
+    public ShoppingList generateAndSetItemIds() {
+        shoppingList.generateAndSetItemIds();
+        return shoppingList;
+    }
+}
@@ -0,0 +1,60 @@
+package org.household.shoppinglist;
+
+import org.household.benchmarks.SyntheticData;
+import org.household.pantry.PantryAvailability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching of shopping list items against the pantry, as done for every shopping list response
+ * Building the availability index is measured separately because it is done once per request
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PantryStatusBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int pantrySize;
+
+    @Param({"10", "100", "1000"})
+    int listSize;
+
+    private SyntheticData data;
+
+    private PantryAvailability availability;
+
+    private ShoppingList shoppingList;
+
+    @Setup
+    public void setUp() {
+        data = new SyntheticData(Math.max(pantrySize, listSize));
+        availability = PantryAvailability.of(data.pantryItems(pantrySize));
+        shoppingList = data.shoppingList(listSize);
+    }
+
+    @Benchmark
+    public ShoppingList updatePantryStatus() {
+        ShoppingListService.updatePantryStatus(shoppingList, availability);
+        return shoppingList;
+    }
+
+    @Benchmark
+    public PantryAvailability buildAvailability() {
+        return PantryAvailability.of(data.pantryItems(pantrySize));
+    }
+}